@@ -0,0 +1,47 @@
+package com.example.biblov1.benchmark;
+
+import com.example.biblov1.Biblov1Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+// The full application context on its own in-memory H2 database, seeded with a synthetic dataset.
+// Services run with their real repositories, transactions and caches; only the web server is left out.
+final class BenchmarkApplication implements AutoCloseable {
+    private final ConfigurableApplicationContext context;
+    private final SyntheticDataset dataset;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context, SyntheticDataset dataset) {
+        this.context = context;
+        this.dataset = dataset;
+    }
+
+    // Reuses the test profile's H2 and JWT settings; each trial gets a fresh database
+    static BenchmarkApplication start(int users) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Biblov1Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:biblov1_bench_" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "app.counters.reconcile-interval-ms=3600000",
+                        "logging.level.root=WARN")
+                .run();
+        return new BenchmarkApplication(context, SyntheticDataset.seed(context, users));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    SyntheticDataset dataset() {
+        return dataset;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.biblov1.benchmark;
+
+import com.example.biblov1.model.User;
+import com.example.biblov1.model.UserProfile;
+import com.example.biblov1.service.CompatibilityScoringEngine;
+import com.example.biblov1.service.ProfileFeatureEncoder;
+import com.example.biblov1.service.ProfileFeatures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Measures the scoring kernel in isolation: one pair, and ranking a full candidate window
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompatibilityScoringBenchmark {
+    private static final String[] INTERESTS = {
+            "chess", "physics", "football", "music", "hiking", "gaming", "cooking", "photography",
+            "robotics", "poetry", "history", "startups", "climbing", "film", "jazz", "astronomy"
+    };
+    private static final String[] LANGUAGES = {"english", "german", "spanish", "french", "turkish", "mandarin", "arabic"};
+    private static final String[] LEVELS = {"A1", "A2", "B1", "B2", "C1", "C2", "native"};
+    private static final String[] SKILLS = {"java", "python", "sql", "react", "statistics", "design", "docker", "latex"};
+    private static final String[] UNIVERSITIES = {"TU Berlin", "LMU", "KIT", "RWTH"};
+    private static final String[] MAJORS = {"Computer Science", "Physics", "Economics", "Biology", "Mathematics"};
+
+    @Param({"1000", "5000"})
+    public int candidates;
+
+    private final CompatibilityScoringEngine engine = new CompatibilityScoringEngine();
+    private ProfileFeatures viewer;
+    private List<ProfileFeatures> window;
+
+    @Setup
+    public void setUp() {
+        // The encoder only touches the repository for batch encoding, which is not exercised here
+        ProfileFeatureEncoder encoder = new ProfileFeatureEncoder(null);
+        Random random = new Random(42);
+        viewer = randomFeatures(encoder, random, 0);
+        window = new ArrayList<>(candidates);
+        for (int i = 1; i <= candidates; i++) {
+            window.add(randomFeatures(encoder, random, i));
+        }
+    }
+
+    @Benchmark
+    public float scorePair() {
+        return engine.score(viewer, window.get(0));
+    }
+
+    @Benchmark
+    public void scoreWindow(Blackhole blackhole) {
+        for (int i = 0; i < window.size(); i++) {
+            blackhole.consume(engine.score(viewer, window.get(i)));
+        }
+    }
+
+    @Benchmark
+    public int[] rankWindow() {
+        return engine.rank(viewer, window);
+    }
+
+    private static ProfileFeatures randomFeatures(ProfileFeatureEncoder encoder, Random random, long userId) {
+        User user = new User();
+        user.setId(userId);
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setUniversity(UNIVERSITIES[random.nextInt(UNIVERSITIES.length)]);
+        profile.setMajor(MAJORS[random.nextInt(MAJORS.length)]);
+
+        List<String> interests = new ArrayList<>();
+        for (int i = 0; i < 2 + random.nextInt(6); i++) {
+            interests.add(INTERESTS[random.nextInt(INTERESTS.length)]);
+        }
+        profile.setInterests(interests);
+
+        List<UserProfile.LanguageProficiency> languages = new ArrayList<>();
+        for (int i = 0; i < 1 + random.nextInt(3); i++) {
+            UserProfile.LanguageProficiency language = new UserProfile.LanguageProficiency();
+            language.setName(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+            language.setLevel(LEVELS[random.nextInt(LEVELS.length)]);
+            languages.add(language);
+        }
+        profile.setLanguages(languages);
+
+        UserProfile.LookingFor lookingFor = new UserProfile.LookingFor();
+        lookingFor.setStudyPartner(random.nextBoolean());
+        lookingFor.setLanguageExchange(random.nextBoolean());
+        lookingFor.setFriendship(random.nextBoolean());
+        lookingFor.setNetworking(random.nextBoolean());
+        lookingFor.setCommunity(random.nextBoolean());
+        profile.setLookingFor(lookingFor);
+
+        List<String> skills = new ArrayList<>();
+        for (int i = 0; i < random.nextInt(5); i++) {
+            skills.add(SKILLS[random.nextInt(SKILLS.length)]);
+        }
+        return encoder.encode(profile, skills);
+    }
+}
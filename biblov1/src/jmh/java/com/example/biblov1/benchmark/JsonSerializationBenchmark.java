@@ -0,0 +1,86 @@
+package com.example.biblov1.benchmark;
+
+import com.example.biblov1.model.User;
+import com.example.biblov1.model.UserProfile;
+import com.example.biblov1.payload.response.CommentResponse;
+import com.example.biblov1.payload.response.PostResponse;
+import com.example.biblov1.payload.response.ProfileCard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Response serialization alone: a feed page of PostResponse and a discovery list of ProfileCards
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"20"})
+    public int posts;
+
+    @Param({"100"})
+    public int profiles;
+
+    // Configured like Spring Boot's auto-configured mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private List<PostResponse> feedPage;
+    private List<ProfileCard> discoveryList;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        feedPage = new ArrayList<>(posts);
+        for (long id = 1; id <= posts; id++) {
+            List<CommentResponse> comments = new ArrayList<>();
+            for (long c = 1; c <= 3; c++) {
+                comments.add(new CommentResponse(id * 10 + c, "Comment " + c + " on post " + id, "User " + c, id, now, now));
+            }
+            PostResponse post = new PostResponse(id, "Post " + id + ": " + "lorem ipsum ".repeat(1 + random.nextInt(20)), null,
+                    now, now, "User " + id, id, 1L, Set.of("exams", "notes"), random.nextInt(30), random.nextBoolean(), comments);
+            post.setCommentCount(3 + random.nextInt(10));
+            feedPage.add(post);
+        }
+
+        discoveryList = new ArrayList<>(profiles);
+        for (long id = 1; id <= profiles; id++) {
+            User user = new User("User " + id, "user" + id + "@bench.example", "not-a-real-hash");
+            user.setId(id);
+            UserProfile profile = SyntheticDataset.randomProfile(user, random);
+            profile.setId(id);
+            discoveryList.add(ProfileCard.from(profile));
+        }
+    }
+
+    @Benchmark
+    public byte[] feedPage() throws Exception {
+        return objectMapper.writeValueAsBytes(feedPage);
+    }
+
+    @Benchmark
+    public byte[] discoveryProfiles() throws Exception {
+        return objectMapper.writeValueAsBytes(discoveryList);
+    }
+}
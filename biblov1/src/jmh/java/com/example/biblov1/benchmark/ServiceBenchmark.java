@@ -0,0 +1,83 @@
+package com.example.biblov1.benchmark;
+
+import com.example.biblov1.model.UserSwipe.SwipeType;
+import com.example.biblov1.service.MatchService;
+import com.example.biblov1.service.PostService;
+import com.example.biblov1.service.UserProfileService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Service hot paths end to end (transactions, repositories, H2) on a seeded dataset: -p users=... scales it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    @Param({"1000"})
+    public int users;
+
+    private BenchmarkApplication application;
+    private SyntheticDataset dataset;
+    private PostService postService;
+    private UserProfileService profileService;
+    private MatchService matchService;
+    private final Random random = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(users);
+        dataset = application.dataset();
+        postService = application.bean(PostService.class);
+        profileService = application.bean(UserProfileService.class);
+        matchService = application.bean(MatchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    // First page of a community feed: the batched replacement of per-post convertToPostResponse
+    @Benchmark
+    public Object communityFeedPage() {
+        Long communityId = dataset.communityIds.get(random.nextInt(dataset.communityIds.size()));
+        return postService.getCommunityFeed(communityId, dataset.randomUserId(random), null, null);
+    }
+
+    @Benchmark
+    public Object postById() {
+        return postService.getPostById(dataset.postIds.get(random.nextInt(dataset.postIds.size())), dataset.randomUserId(random));
+    }
+
+    @Benchmark
+    public List<?> allProfilesExcludingUser() {
+        return profileService.getAllProfilesExcludingUser(dataset.randomUserId(random));
+    }
+
+    // Random pairs, so most swipes insert and some update or complete a match
+    @Benchmark
+    public boolean processSwipe() {
+        int userCount = dataset.userIds.size();
+        int swiper = random.nextInt(userCount);
+        int swiped = (swiper + 1 + random.nextInt(userCount - 1)) % userCount;
+        SwipeType type = random.nextInt(3) == 0 ? SwipeType.DISLIKE : SwipeType.LIKE;
+        return matchService.processSwipe(dataset.userIds.get(swiper), dataset.userIds.get(swiped), type);
+    }
+}
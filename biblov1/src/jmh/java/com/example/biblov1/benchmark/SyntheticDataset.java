@@ -0,0 +1,156 @@
+package com.example.biblov1.benchmark;
+
+import com.example.biblov1.model.Comment;
+import com.example.biblov1.model.Community;
+import com.example.biblov1.model.Post;
+import com.example.biblov1.model.User;
+import com.example.biblov1.model.UserProfile;
+import com.example.biblov1.repository.CommentRepository;
+import com.example.biblov1.repository.CommunityRepository;
+import com.example.biblov1.repository.LikeBatchRepository;
+import com.example.biblov1.repository.PostRepository;
+import com.example.biblov1.repository.UserProfileRepository;
+import com.example.biblov1.repository.UserRepository;
+import com.example.biblov1.service.PostCounterReconciler;
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Deterministic synthetic data scaled by the user count: every user has a profile, one community per 50 users
+// with 40 posts each, and each post gets up to 6 comments, up to 30 likes and up to 3 hashtags.
+final class SyntheticDataset {
+    static final int USERS_PER_COMMUNITY = 50;
+    static final int POSTS_PER_COMMUNITY = 40;
+
+    private static final String[] INTERESTS = {
+            "chess", "physics", "football", "music", "hiking", "gaming", "cooking", "photography",
+            "robotics", "poetry", "history", "startups", "climbing", "film", "jazz", "astronomy"
+    };
+    private static final String[] LANGUAGES = {"english", "german", "spanish", "french", "turkish", "mandarin", "arabic"};
+    private static final String[] LEVELS = {"A1", "A2", "B1", "B2", "C1", "C2", "native"};
+    private static final String[] UNIVERSITIES = {"TU Berlin", "LMU", "KIT", "RWTH"};
+    private static final String[] MAJORS = {"Computer Science", "Physics", "Economics", "Biology", "Mathematics"};
+    private static final String[] HASHTAGS = {"exams", "notes", "groupwork", "thesis", "internship", "library"};
+
+    final List<Long> userIds;
+    final List<Long> communityIds;
+    final List<Long> postIds;
+
+    private SyntheticDataset(List<Long> userIds, List<Long> communityIds, List<Long> postIds) {
+        this.userIds = userIds;
+        this.communityIds = communityIds;
+        this.postIds = postIds;
+    }
+
+    static SyntheticDataset seed(ApplicationContext context, int userCount) {
+        Random random = new Random(42);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        UserProfileRepository profileRepository = context.getBean(UserProfileRepository.class);
+
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new User("User " + i, "user" + i + "@bench.example", "not-a-real-hash"));
+        }
+        users = userRepository.saveAll(users);
+
+        List<UserProfile> profiles = new ArrayList<>(userCount);
+        for (User user : users) {
+            profiles.add(randomProfile(user, random));
+        }
+        profileRepository.saveAll(profiles);
+
+        List<Community> communities = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, userCount / USERS_PER_COMMUNITY); i++) {
+            Community community = new Community();
+            community.setName("Community " + i);
+            community.setDescription("Synthetic community " + i);
+            community.setOwner(users.get(random.nextInt(users.size())));
+            communities.add(community);
+        }
+        communities = context.getBean(CommunityRepository.class).saveAll(communities);
+
+        List<Post> posts = new ArrayList<>();
+        for (Community community : communities) {
+            for (int i = 0; i < POSTS_PER_COMMUNITY; i++) {
+                Post post = new Post();
+                post.setCommunity(community);
+                post.setAuthor(users.get(random.nextInt(users.size())));
+                post.setContent("Post " + i + " in " + community.getName() + ": " + "lorem ipsum ".repeat(1 + random.nextInt(20)));
+                Set<String> hashtags = new HashSet<>();
+                for (int h = random.nextInt(4); h > 0; h--) {
+                    hashtags.add(HASHTAGS[random.nextInt(HASHTAGS.length)]);
+                }
+                post.setHashtags(hashtags);
+                posts.add(post);
+            }
+        }
+        posts = context.getBean(PostRepository.class).saveAll(posts);
+
+        List<Comment> comments = new ArrayList<>();
+        List<long[]> likes = new ArrayList<>();
+        for (Post post : posts) {
+            for (int c = random.nextInt(7); c > 0; c--) {
+                Comment comment = new Comment();
+                comment.setPost(post);
+                comment.setAuthor(users.get(random.nextInt(users.size())));
+                comment.setContent("Comment " + c + " on post " + post.getId());
+                comments.add(comment);
+            }
+            for (int l = random.nextInt(Math.min(31, userCount + 1)); l > 0; l--) {
+                likes.add(new long[]{post.getId(), users.get(random.nextInt(users.size())).getId()});
+            }
+        }
+        context.getBean(CommentRepository.class).saveAll(comments);
+        context.getBean(LikeBatchRepository.class).insertLikes(likes, LocalDateTime.now());
+        // Seeding bypasses the counter increments, so let the reconciler fill like_count and comment_count
+        context.getBean(PostCounterReconciler.class).reconcile();
+
+        return new SyntheticDataset(
+                users.stream().map(User::getId).toList(),
+                communities.stream().map(Community::getId).toList(),
+                posts.stream().map(Post::getId).toList());
+    }
+
+    Long randomUserId(Random random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    static UserProfile randomProfile(User user, Random random) {
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setName(user.getName());
+        profile.setEmail(user.getEmail());
+        profile.setAge(18 + random.nextInt(15));
+        profile.setUniversity(UNIVERSITIES[random.nextInt(UNIVERSITIES.length)]);
+        profile.setMajor(MAJORS[random.nextInt(MAJORS.length)]);
+        profile.setLocation("");
+        profile.setBio("Synthetic profile of " + user.getName());
+
+        List<String> interests = new ArrayList<>();
+        for (int i = 0; i < 2 + random.nextInt(6); i++) {
+            interests.add(INTERESTS[random.nextInt(INTERESTS.length)]);
+        }
+        profile.setInterests(interests);
+
+        List<UserProfile.LanguageProficiency> languages = new ArrayList<>();
+        for (int i = 0; i < 1 + random.nextInt(3); i++) {
+            UserProfile.LanguageProficiency language = new UserProfile.LanguageProficiency();
+            language.setName(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+            language.setLevel(LEVELS[random.nextInt(LEVELS.length)]);
+            languages.add(language);
+        }
+        profile.setLanguages(languages);
+
+        UserProfile.LookingFor lookingFor = new UserProfile.LookingFor();
+        lookingFor.setStudyPartner(random.nextBoolean());
+        lookingFor.setLanguageExchange(random.nextBoolean());
+        lookingFor.setFriendship(random.nextBoolean());
+        profile.setLookingFor(lookingFor);
+        return profile;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.biblov1.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Background pool that refills discovery candidate queues. Refills are best-effort, but overflow is rejected
+    // rather than silently dropped, so the caller can reset the queue's refilling flag and retry on a later read
+    @Bean(name = "candidateRefillExecutor")
+    public ThreadPoolTaskExecutor candidateRefillExecutor(@Value("${app.discovery.queue.refill-threads:2}") int threads,
+                                                          @Value("${app.discovery.queue.refill-queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("candidate-refill-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Single thread for size-triggered like-buffer flushes; one queued flush is enough to drain any backlog
+    @Bean(name = "likeFlushExecutor")
+    public ThreadPoolTaskExecutor likeFlushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("like-flush-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Timer for the like buffer's periodic flushes, kept apart from the shared @Scheduled thread
+    @Bean(name = "likeFlushScheduler")
+    public ThreadPoolTaskScheduler likeFlushScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("like-flush-timer-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.biblov1.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HibernateCacheConfig {
+
+    // Second-level cache regions named in the @Cache annotations, with their default size and time-to-live;
+    // each can be overridden through app.l2-cache.<region>.max-size and app.l2-cache.<region>.ttl-ms
+    static final Map<String, RegionDefaults> REGIONS = new LinkedHashMap<>();
+
+    static {
+        REGIONS.put("users", new RegionDefaults(50_000, TimeUnit.MINUTES.toMillis(30)));
+        REGIONS.put("user-skills", new RegionDefaults(50_000, TimeUnit.MINUTES.toMillis(30)));
+        REGIONS.put("skills", new RegionDefaults(100_000, TimeUnit.MINUTES.toMillis(30)));
+        REGIONS.put("profiles", new RegionDefaults(50_000, TimeUnit.MINUTES.toMillis(30)));
+        REGIONS.put("profile-interests", new RegionDefaults(50_000, TimeUnit.MINUTES.toMillis(30)));
+        REGIONS.put("profile-languages", new RegionDefaults(50_000, TimeUnit.MINUTES.toMillis(30)));
+        REGIONS.put("communities", new RegionDefaults(5_000, TimeUnit.HOURS.toMillis(1)));
+        REGIONS.put("community-tags", new RegionDefaults(5_000, TimeUnit.HOURS.toMillis(1)));
+    }
+
+    // One cache manager per application context, so test contexts sharing a JVM do not share regions
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("biblov1-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        REGIONS.forEach((region, defaults) -> {
+            long maxSize = environment.getProperty("app.l2-cache." + region + ".max-size", Long.class, defaults.maxSize());
+            long ttlMs = environment.getProperty("app.l2-cache." + region + ".ttl-ms", Long.class, defaults.ttlMs());
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setStoreByValue(false);
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+            cacheManager.createCache(region, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    record RegionDefaults(long maxSize, long ttlMs) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.biblov1.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One access-log line for a random sample of requests plus every slow one, instead of logging each request.
+// Fields are SLF4J key-value pairs, so the prod JSON encoder emits them as separate properties and the dev
+// console prints them after the message (%kvp in logback-spring.xml).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SampledRequestLoggingFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger("com.example.biblov1.requests");
+
+    @Value("${app.logging.requests.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${app.logging.requests.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !logger.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            boolean slow = elapsedMs >= slowThresholdMs;
+            if (slow || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+                logger.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("path", request.getRequestURI())
+                        .addKeyValue("status", response.getStatus())
+                        .addKeyValue("durationMs", elapsedMs)
+                        .addKeyValue("userId", request.getAttribute("userId"))
+                        .addKeyValue("slow", slow)
+                        .log("request");
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.biblov1.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -8,6 +10,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(WebConfig.class);
 
     @Value("${app.upload.dir}")
     private String uploadDir;
@@ -27,6 +30,6 @@ public class WebConfig implements WebMvcConfigurer {
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:" + uploadDir + "/");
-        System.out.println("Serving uploads from: " + new java.io.File(uploadDir).getAbsolutePath());
+        logger.info("Serving uploads from: {}", new java.io.File(uploadDir).getAbsolutePath());
     }
 } 
\ No newline at end of file
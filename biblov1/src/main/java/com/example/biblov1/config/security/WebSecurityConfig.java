@@ -81,6 +81,8 @@ public class WebSecurityConfig {
                 auth.requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/test/**").permitAll()
                     .requestMatchers("/uploads/**").permitAll()
+                    // The STOMP handshake is authenticated by the bearer token in the CONNECT frame
+                    .requestMatchers("/ws/**").permitAll()
                     .requestMatchers("/error").permitAll()
                     .anyRequest().authenticated()
             );
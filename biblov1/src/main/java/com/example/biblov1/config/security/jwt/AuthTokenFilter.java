@@ -1,6 +1,6 @@
 package com.example.biblov1.config.security.jwt;
 
-import com.example.biblov1.service.UserDetailsServiceImpl;
+import com.example.biblov1.service.UserDetailsImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +10,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -23,26 +22,20 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Autowired
-    private JwtUtils jwtUtils;
-
-    @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private JwtUserResolver jwtUserResolver;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
+            // Runs on every request: nothing here logs above DEBUG or builds strings, and the token is never logged.
+            // Anonymous requests are normal (public endpoints), so a missing token is not logged at all.
             String jwt = parseJwt(request);
-            logger.debug("Request URI: {}", request.getRequestURI());
-            logger.debug("Authorization header: {}", request.getHeader("Authorization"));
-            
             if (jwt != null) {
-                logger.debug("JWT token found: {}", jwt.substring(0, 20) + "...");
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                    logger.debug("Username from token: {}", username);
+                UserDetailsImpl userDetails = jwtUserResolver.resolve(jwt);
+                if (userDetails != null) {
+                    logger.debug("User ID from token: {}", userDetails.getId());
 
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -52,12 +45,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-                    logger.debug("Authentication set in SecurityContext");
                 } else {
-                    logger.error("Invalid JWT token");
+                    logger.debug("Invalid or revoked JWT token for {}", request.getRequestURI());
                 }
-            } else {
-                logger.error("No JWT token found in request");
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage(), e);
@@ -68,8 +58,6 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
-        logger.debug("Parsing JWT from header: {}", headerAuth);
-
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
             return headerAuth.substring(7);
         }
@@ -0,0 +1,57 @@
+package com.example.biblov1.config.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tokens that stop being valid before they expire, since stateless authentication never looks the user up:
+// single tokens by ID on logout, and every token a user was issued up to a point when the account is deleted.
+// Entries only live until the tokens they cover would have expired anyway, so both maps stay small.
+@Component
+public class JwtRevocationCache {
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    @Value("${app.jwt.revocation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    public void revokeToken(Claims claims) {
+        if (enabled && claims.getId() != null && claims.getExpiration() != null) {
+            revokedTokens.put(claims.getId(), claims.getExpiration().getTime());
+        }
+    }
+
+    public void revokeUser(Long userId) {
+        if (enabled) {
+            revokedUsers.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (!enabled) {
+            return false;
+        }
+        if (claims.getId() != null && revokedTokens.containsKey(claims.getId())) {
+            return true;
+        }
+        Number userId = claims.get(JwtUtils.CLAIM_USER_ID, Number.class);
+        Long revokedAt = userId == null ? null : revokedUsers.get(userId.longValue());
+        Date issuedAt = claims.getIssuedAt();
+        return revokedAt != null && (issuedAt == null || issuedAt.getTime() <= revokedAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revokedAt -> revokedAt + jwtExpirationMs <= now);
+    }
+}
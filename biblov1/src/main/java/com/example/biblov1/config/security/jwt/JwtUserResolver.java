@@ -0,0 +1,49 @@
+package com.example.biblov1.config.security.jwt;
+
+import com.example.biblov1.service.UserDetailsImpl;
+import com.example.biblov1.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Turns a bearer token into the authenticated principal for both the REST filter and STOMP CONNECT.
+// In stateless mode the principal is built from the token's signed claims; tokens issued without them,
+// and app.jwt.stateless=false, fall back to loading the user by the token's subject.
+@Component
+public class JwtUserResolver {
+    private static final Logger logger = LoggerFactory.getLogger(JwtUserResolver.class);
+
+    private final JwtUtils jwtUtils;
+    private final JwtRevocationCache revocationCache;
+    private final UserDetailsServiceImpl userDetailsService;
+
+    @Value("${app.jwt.stateless:true}")
+    private boolean stateless;
+
+    public JwtUserResolver(JwtUtils jwtUtils, JwtRevocationCache revocationCache, UserDetailsServiceImpl userDetailsService) {
+        this.jwtUtils = jwtUtils;
+        this.revocationCache = revocationCache;
+        this.userDetailsService = userDetailsService;
+    }
+
+    // Null when the token is invalid, expired or revoked
+    public UserDetailsImpl resolve(String jwt) {
+        Claims claims = jwtUtils.parseValidClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+        if (revocationCache.isRevoked(claims)) {
+            logger.debug("JWT token has been revoked");
+            return null;
+        }
+        if (stateless) {
+            UserDetailsImpl fromClaims = jwtUtils.getUserDetailsFromClaims(claims);
+            if (fromClaims != null) {
+                return fromClaims;
+            }
+        }
+        return (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+}
@@ -8,76 +8,141 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+// The signing key is decoded once and the parser built once; both are immutable and shared by all requests.
+// Tokens are verified and parsed in a single pass, and recently verified tokens are remembered by their SHA-256
+// until they expire, so a client repeating the same bearer token skips signature verification and JSON parsing.
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${app.jwtSecret}")
-    private String jwtSecret;
+    // Signed principal claims, so authenticated requests need no user lookup
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_NAME = "name";
+    static final String CLAIM_ROLES = "roles";
 
-    @Value("${app.jwtExpirationMs}")
-    private int jwtExpirationMs;
+    private final Key key;
+    private final JwtParser parser;
+    private final int jwtExpirationMs;
+    private final int verifiedCacheMaxSize;
+    private final ConcurrentHashMap<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+
+    public JwtUtils(@Value("${app.jwtSecret}") String jwtSecret,
+                    @Value("${app.jwtExpirationMs}") int jwtExpirationMs,
+                    @Value("${app.jwt.verified-cache.max-size:10000}") int verifiedCacheMaxSize) {
+        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+        logger.debug("JWT Secret key length: {} bytes", keyBytes.length);
+        this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedCacheMaxSize = verifiedCacheMaxSize;
+    }
 
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
         logger.debug("Generating JWT token for user: {}", userPrincipal.getEmail());
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject((userPrincipal.getEmail()))
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_NAME, userPrincipal.getUsername())
+                .claim(CLAIM_ROLES, userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        logger.debug("JWT Secret key length: {} bytes", keyBytes.length);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    public String getUserNameFromJwtToken(String token) {
-        try {
-            String username = Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-            logger.debug("Extracted username from token: {}", username);
-            return username;
-        } catch (Exception e) {
-            logger.error("Error extracting username from token: {}", e.getMessage());
-            throw e;
+    // The token's claims if its signature is valid and it has not expired, otherwise null
+    public Claims parseValidClaims(String authToken) {
+        String cacheKey = verifiedCacheMaxSize > 0 ? sha256(authToken) : null;
+        if (cacheKey != null) {
+            Claims cached = verifiedTokens.get(cacheKey);
+            if (cached != null) {
+                if (!isExpired(cached)) {
+                    return cached;
+                }
+                verifiedTokens.remove(cacheKey);
+                logger.debug("JWT token is expired: {}", cached.getExpiration());
+                return null;
+            }
         }
-    }
 
-    public boolean validateJwtToken(String authToken) {
+        Claims claims;
         try {
-            logger.debug("Validating JWT token: {}", authToken.substring(0, 20) + "...");
-            Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parse(authToken);
-            logger.debug("JWT token is valid");
-            return true;
+            claims = parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            logger.debug("Invalid JWT token: {}", e.getMessage());
+            return null;
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            logger.debug("JWT token is expired: {}", e.getMessage());
+            return null;
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            logger.debug("JWT token is unsupported: {}", e.getMessage());
+            return null;
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            logger.debug("JWT claims string is empty: {}", e.getMessage());
+            return null;
         } catch (Exception e) {
-            logger.error("Unexpected error validating JWT token: {}", e.getMessage());
+            logger.warn("JWT token rejected: {}", e.getMessage());
+            return null;
+        }
+
+        if (cacheKey != null && claims.getExpiration() != null) {
+            if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+                pruneVerifiedTokens();
+            }
+            verifiedTokens.put(cacheKey, claims);
+        }
+        return claims;
+    }
+
+    // The principal as it was when the token was issued; null for tokens issued without the principal claims
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || roles == null) {
+            return null;
+        }
+        Collection<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new UserDetailsImpl(userId.longValue(), claims.get(CLAIM_NAME, String.class), claims.getSubject(), null, authorities);
+    }
+
+    // Expired entries go first; if the cache is still full it starts over rather than tracking recency
+    private void pruneVerifiedTokens() {
+        verifiedTokens.values().removeIf(JwtUtils::isExpired);
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            verifiedTokens.clear();
         }
+    }
+
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration().getTime() <= System.currentTimeMillis();
+    }
 
-        return false;
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.example.biblov1.config.security.jwt;
+
+import com.example.biblov1.service.UserDetailsImpl;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+// Authenticates STOMP sessions with the same bearer token as the REST API, sent as a CONNECT header.
+// Clients may only subscribe to their own user queues; messages are pushed by the server, never sent by clients.
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    static final String USER_QUEUE_PREFIX = "/user/queue/";
+
+    private final JwtUserResolver jwtUserResolver;
+
+    public StompAuthChannelInterceptor(JwtUserResolver jwtUserResolver) {
+        this.jwtUserResolver = jwtUserResolver;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            case SUBSCRIBE -> {
+                String destination = accessor.getDestination();
+                if (accessor.getUser() == null || destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+                    throw new MessagingException("Subscription not allowed");
+                }
+            }
+            case SEND -> throw new MessagingException("Sending over the WebSocket is not supported");
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(String header) {
+        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+            throw new MessagingException("Missing bearer token");
+        }
+        UserDetailsImpl userDetails = jwtUserResolver.resolve(header.substring(7));
+        if (userDetails == null) {
+            throw new MessagingException("Invalid bearer token");
+        }
+        return new StompPrincipal(userDetails.getId());
+    }
+}
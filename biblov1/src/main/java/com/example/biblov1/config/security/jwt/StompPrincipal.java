@@ -0,0 +1,11 @@
+package com.example.biblov1.config.security.jwt;
+
+import java.security.Principal;
+
+// Identity of an authenticated STOMP session; the name is the user ID so user destinations can be addressed by ID
+public record StompPrincipal(Long userId) implements Principal {
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
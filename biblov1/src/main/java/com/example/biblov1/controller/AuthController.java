@@ -8,8 +8,10 @@ import com.example.biblov1.payload.response.JwtResponse;
 import com.example.biblov1.payload.response.MessageResponse;
 import com.example.biblov1.repository.UserRepository;
 import com.example.biblov1.repository.UserProfileRepository;
+import com.example.biblov1.config.security.jwt.JwtRevocationCache;
 import com.example.biblov1.config.security.jwt.JwtUtils;
 import com.example.biblov1.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -46,6 +48,9 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    JwtRevocationCache jwtRevocationCache;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
@@ -118,6 +123,19 @@ public class AuthController {
         }
     }
 
+    // Tokens carry the principal and stay valid until they expire, so logging out revokes this one explicitly
+    @PostMapping("/logout")
+    public ResponseEntity<?> logoutUser(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            // An invalid or expired token cannot be used anyway
+            Claims claims = jwtUtils.parseValidClaims(authorization.substring(7));
+            if (claims != null) {
+                jwtRevocationCache.revokeToken(claims);
+            }
+        }
+        return ResponseEntity.ok(new MessageResponse("Logged out"));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -1,7 +1,8 @@
 package com.example.biblov1.controller;
 
+import com.example.biblov1.exception.ChatWritePendingException;
+import com.example.biblov1.exception.ChatWriteQueueFullException;
 import com.example.biblov1.model.ChatRoom;
-import com.example.biblov1.model.Message;
 import com.example.biblov1.model.User;
 import com.example.biblov1.model.StudyMatch;
 import com.example.biblov1.service.ChatService;
@@ -9,6 +10,9 @@ import com.example.biblov1.service.UserService;
 import com.example.biblov1.service.MatchService;
 import com.example.biblov1.payload.request.SendMessageRequest;
 import com.example.biblov1.payload.request.FindOrCreateChatRoomRequest;
+import com.example.biblov1.payload.response.ChatMessageResponse;
+import com.example.biblov1.payload.response.ChatRoomResponse;
+import com.example.biblov1.payload.response.ChatRoomSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
@@ -35,17 +39,45 @@ public class ChatController {
         this.matchService = matchService;
     }
 
+    // Inbox view: one row per room with the peer, last message preview and unread count
+    @GetMapping("/inbox")
+    public ResponseEntity<List<ChatRoomSummary>> getInbox(@RequestAttribute("userId") Long userId) {
+        return ResponseEntity.ok(chatService.getInbox(userId));
+    }
+
+    @PostMapping("/rooms/{chatRoomId}/read")
+    public ResponseEntity<?> markRead(@PathVariable Long chatRoomId, @RequestAttribute("userId") Long userId, @RequestParam("messageId") Long messageId) {
+        try {
+            chatService.markReadUpTo(chatRoomId, userId, messageId);
+            return ResponseEntity.ok(Map.of("message", "Marked as read."));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/rooms")
-    public ResponseEntity<List<ChatRoom>> getUserChatRooms(@RequestAttribute("userId") Long userId) {
-        List<ChatRoom> chatRooms = chatService.getUserChatRooms(userId);
+    public ResponseEntity<List<ChatRoomResponse>> getUserChatRooms(@RequestAttribute("userId") Long userId) {
+        List<ChatRoomResponse> chatRooms = chatService.getUserChatRooms(userId);
         return ResponseEntity.ok(chatRooms);
     }
 
+    // Without parameters returns the whole history; afterId/beforeId/limit return only a window of it
     @GetMapping("/rooms/{chatRoomId}/messages")
-    public ResponseEntity<?> getChatRoomMessages(@PathVariable Long chatRoomId, @RequestAttribute("userId") Long userId) {
+    public ResponseEntity<?> getChatRoomMessages(
+            @PathVariable Long chatRoomId,
+            @RequestAttribute("userId") Long userId,
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "beforeId", required = false) Long beforeId,
+            @RequestParam(value = "limit", required = false) Integer limit) {
         try {
-            List<Message> messages = chatService.getMessagesByChatRoom(chatRoomId, userId);
+            List<ChatMessageResponse> messages = afterId == null && beforeId == null && limit == null
+                    ? chatService.getMessagesByChatRoom(chatRoomId, userId)
+                    : chatService.getMessagesPage(chatRoomId, userId, afterId, beforeId, limit);
             return ResponseEntity.ok(messages);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
@@ -56,10 +88,18 @@ public class ChatController {
     @PostMapping("/send")
     public ResponseEntity<?> sendMessage(@RequestAttribute("userId") Long senderId, @RequestBody SendMessageRequest request) {
         try {
-            Message message = chatService.saveMessage(request.getChatRoomId(), senderId, request.getContent());
+            ChatMessageResponse message = chatService.isWriteBehindEnabled()
+                    ? chatService.enqueueMessage(request.getChatRoomId(), senderId, request.getContent())
+                    : chatService.saveMessage(request.getChatRoomId(), senderId, request.getContent());
             return ResponseEntity.ok(message);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (ChatWriteQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (ChatWritePendingException e) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("status", "pending", "message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.internalServerError().body(Map.of("error", "Failed to send message: " + e.getMessage()));
         }
@@ -71,7 +111,7 @@ public class ChatController {
             StudyMatch studyMatch = matchService.getStudyMatchById(request.getStudyMatchId());
             
             ChatRoom chatRoom = chatService.findOrCreateChatRoom(request.getUser1Id(), request.getUser2Id(), studyMatch);
-            return ResponseEntity.ok(chatRoom);
+            return ResponseEntity.ok(ChatRoomResponse.from(chatRoom));
         } catch (RuntimeException e) {
             return ResponseEntity.internalServerError().body(Map.of("error", "Failed to find or create chat room: " + e.getMessage()));
         }
@@ -5,9 +5,11 @@ import com.example.biblov1.service.CommentService;
 import com.example.biblov1.payload.request.CreateCommentRequest;
 import com.example.biblov1.payload.request.UpdateCommentRequest;
 import com.example.biblov1.payload.response.CommentResponse;
+import com.example.biblov1.payload.response.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -26,17 +28,19 @@ public class CommentController {
     }
 
     @PostMapping
-    public ResponseEntity<?> createComment(@RequestAttribute("userId") Long authorId, @RequestBody CreateCommentRequest request) {
+    public ResponseEntity<?> createComment(@RequestAttribute("userId") Long authorId, Authentication authentication, @RequestBody CreateCommentRequest request) {
         try {
             Comment comment = commentService.createComment(request.getPostId(), authorId, request.getContent());
-            return ResponseEntity.status(HttpStatus.CREATED).body(comment);
+            // Same shape as thread entries; the author's name comes from the caller's token, not a user load
+            return ResponseEntity.status(HttpStatus.CREATED).body(new CommentResponse(comment.getId(), comment.getContent(),
+                    authentication.getName(), request.getPostId(), comment.getCreatedAt(), comment.getUpdatedAt()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @GetMapping("/{commentId}")
-    public ResponseEntity<Comment> getCommentById(@PathVariable Long commentId) {
+    public ResponseEntity<CommentResponse> getCommentById(@PathVariable Long commentId) {
         return commentService.getCommentById(commentId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -48,6 +52,20 @@ public class CommentController {
         return ResponseEntity.ok(comments);
     }
 
+    // One post's full thread in posting order, a page at a time
+    @GetMapping("/post/{postId}/page")
+    public ResponseEntity<?> getCommentThreadPage(
+            @PathVariable Long postId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            CursorPage<CommentResponse> page = commentService.getCommentThreadPage(postId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{commentId}")
     public ResponseEntity<?> updateComment(@PathVariable Long commentId, @RequestBody UpdateCommentRequest request) {
         try {
@@ -1,7 +1,6 @@
 package com.example.biblov1.controller;
 
 import com.example.biblov1.model.Community;
-import com.example.biblov1.model.CommunityMember;
 import com.example.biblov1.model.User;
 import com.example.biblov1.service.CommunityService;
 import com.example.biblov1.service.UserService;
@@ -57,8 +56,8 @@ public class CommunityController {
     @PostMapping("/{communityId}/join")
     public ResponseEntity<?> joinCommunity(@PathVariable Long communityId, @RequestAttribute("userId") Long userId) {
         try {
-            CommunityMember communityMember = communityService.joinCommunity(communityId, userId);
-            return ResponseEntity.ok(communityMember);
+            communityService.joinCommunity(communityId, userId);
+            return ResponseEntity.ok(Map.of("message", "Successfully joined community."));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -4,10 +4,12 @@ import com.example.biblov1.model.Post;
 import com.example.biblov1.service.PostService;
 import com.example.biblov1.payload.request.CreatePostRequest;
 import com.example.biblov1.payload.request.UpdatePostRequest;
+import com.example.biblov1.payload.response.CursorPage;
 import com.example.biblov1.payload.response.PostResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
@@ -35,6 +37,7 @@ public class PostController {
     @PostMapping
     public ResponseEntity<?> createPost(
             @RequestAttribute("userId") Long authorId,
+            Authentication authentication,
             @RequestParam("communityId") Long communityId,
             @RequestParam("content") String content,
             @RequestParam(value = "imageFile", required = false) MultipartFile imageFile,
@@ -52,7 +55,10 @@ public class PostController {
             Set<String> hashtags = new HashSet<>(Arrays.asList(new ObjectMapper().readValue(hashtagsJson, String[].class)));
 
             Post post = postService.createPost(communityId, authorId, content, imageFile, hashtags);
-            return ResponseEntity.status(HttpStatus.CREATED).body(post);
+            // A new post has no likes or comments yet; the author's name comes from the caller's token
+            return ResponseEntity.status(HttpStatus.CREATED).body(new PostResponse(post.getId(), post.getContent(), post.getImageUrl(),
+                    post.getCreatedAt(), post.getUpdatedAt(), authentication.getName(), authorId, communityId,
+                    post.getHashtags(), 0, false, List.of()));
         } catch (MaxUploadSizeExceededException e) {
             return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
                     .body(Map.of("error", "File size too large. Maximum allowed size is 50MB."));
@@ -75,6 +81,21 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    // Paginated community feed: pass nextCursor back as cursor; comments are a short preview, see /api/comments/post/{id}/page
+    @GetMapping("/community/{communityId}/feed")
+    public ResponseEntity<?> getCommunityFeed(
+            @PathVariable Long communityId,
+            @RequestAttribute("userId") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            CursorPage<PostResponse> page = postService.getCommunityFeed(communityId, userId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{postId}")
     public ResponseEntity<?> updatePost(@PathVariable Long postId, @RequestBody UpdatePostRequest request) {
         try {
@@ -2,11 +2,10 @@ package com.example.biblov1.controller;
 
 import com.example.biblov1.model.User;
 import com.example.biblov1.model.Skill;
+import com.example.biblov1.payload.response.UserSummary;
 import com.example.biblov1.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,18 +21,14 @@ public class UserController {
     }
 
     @GetMapping
-    public List<User> getUsers() {
+    public List<UserSummary> getUsers() {
         return userService.getAllUsers();
     }
 
     @PostMapping("/profile/skills")
-    public ResponseEntity<?> addSkill(@RequestBody Skill skill) {
+    public ResponseEntity<?> addSkill(@RequestAttribute("userId") Long userId, @RequestBody Skill skill) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email);
-            
-            User updatedUser = userService.addSkill(user.getId(), skill);
+            User updatedUser = userService.addSkill(userId, skill);
             return ResponseEntity.ok(updatedUser);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -42,13 +37,9 @@ public class UserController {
     }
 
     @DeleteMapping("/profile/skills/{skillId}")
-    public ResponseEntity<?> removeSkill(@PathVariable Long skillId) {
+    public ResponseEntity<?> removeSkill(@RequestAttribute("userId") Long userId, @PathVariable Long skillId) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            User user = userService.getUserByEmail(email);
-            
-            User updatedUser = userService.removeSkill(user.getId(), skillId);
+            User updatedUser = userService.removeSkill(userId, skillId);
             return ResponseEntity.ok(updatedUser);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -57,13 +48,15 @@ public class UserController {
     }
 
     @PostMapping
-    public User createUser(@RequestBody User user) {
-        return userService.createUser(user);
+    public UserSummary createUser(@RequestBody User user) {
+        User created = userService.createUser(user);
+        return new UserSummary(created.getId(), created.getName(), created.getEmail());
     }
 
     @PutMapping("/{userId}/password")
-    public User updatePassword(@PathVariable Long userId, @RequestBody String newPassword) {
-        return userService.updatePassword(userId, newPassword);
+    public UserSummary updatePassword(@PathVariable Long userId, @RequestBody String newPassword) {
+        User updated = userService.updatePassword(userId, newPassword);
+        return new UserSummary(updated.getId(), updated.getName(), updated.getEmail());
     }
 
     @DeleteMapping("/{userId}")
@@ -1,10 +1,14 @@
 package com.example.biblov1.controller;
 
 import com.example.biblov1.model.UserProfile;
+import com.example.biblov1.service.CandidateQueueService;
 import com.example.biblov1.service.UserProfileService;
 import com.example.biblov1.service.UserService;
 import com.example.biblov1.model.User;
 import com.example.biblov1.exception.ResourceNotFoundException;
+import com.example.biblov1.payload.response.CursorPage;
+import com.example.biblov1.payload.response.ProfileCard;
+import com.example.biblov1.payload.response.ProfileView;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,17 +22,19 @@ import java.util.Map;
 public class UserProfileController {
     private final UserProfileService profileService;
     private final UserService userService;
+    private final CandidateQueueService candidateQueueService;
 
-    public UserProfileController(UserProfileService profileService, UserService userService) {
+    public UserProfileController(UserProfileService profileService, UserService userService, CandidateQueueService candidateQueueService) {
         this.profileService = profileService;
         this.userService = userService;
+        this.candidateQueueService = candidateQueueService;
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserProfile> getMyProfile(@RequestAttribute("userId") Long userId) {
+    public ResponseEntity<ProfileView> getMyProfile(@RequestAttribute("userId") Long userId) {
         try {
-            return ResponseEntity.ok(profileService.getProfileByUserId(userId));
-        } catch (Exception e) {
+            return ResponseEntity.ok(profileService.getProfileView(userId));
+        } catch (ResourceNotFoundException e) {
             // If profile doesn't exist, create one
             User user = userService.getUserById(userId);
             UserProfile newProfile = new UserProfile();
@@ -38,18 +44,19 @@ public class UserProfileController {
             newProfile.setMajor("");
             newProfile.setLocation("");
             newProfile.setBio("");
-            return ResponseEntity.ok(profileService.createProfile(newProfile));
+            profileService.createProfile(newProfile);
+            return ResponseEntity.ok(profileService.getProfileView(userId));
         }
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<UserProfile> getUserProfile(@PathVariable Long userId) {
-        return ResponseEntity.ok(profileService.getProfileByUserId(userId));
+    public ResponseEntity<ProfileView> getUserProfile(@PathVariable Long userId) {
+        return ResponseEntity.ok(profileService.getProfileView(userId));
     }
 
     // Endpoint for updating profile without picture
     @PutMapping(value = "/me", consumes = {"application/json"})
-    public ResponseEntity<UserProfile> updateMyProfile(
+    public ResponseEntity<ProfileView> updateMyProfile(
             @RequestAttribute("userId") Long userId,
             @RequestBody UserProfile updatedProfile) {
         return ResponseEntity.ok(profileService.updateProfile(userId, updatedProfile));
@@ -57,18 +64,16 @@ public class UserProfileController {
 
     // Endpoint for updating profile with picture
     @PutMapping(value = "/me/with-picture", consumes = {"multipart/form-data"})
-    public ResponseEntity<UserProfile> updateMyProfileWithPicture(
+    public ResponseEntity<ProfileView> updateMyProfileWithPicture(
             @RequestAttribute("userId") Long userId,
             @RequestPart("profile") UserProfile updatedProfile,
             @RequestPart(value = "profilePicture", required = false) MultipartFile profilePicture) {
         try {
-            UserProfile profile = profileService.updateProfile(userId, updatedProfile);
+            ProfileView profile = profileService.updateProfile(userId, updatedProfile);
             
-            // If a new picture was uploaded, update it
+            // If a new picture was uploaded, update it (the upload stores the new URL on the profile)
             if (profilePicture != null && !profilePicture.isEmpty()) {
-                String pictureUrl = profileService.uploadProfilePicture(userId, profilePicture);
-                profile.setProfilePictureUrl(pictureUrl);
-                profile = profileService.createProfile(profile);
+                profile.setProfilePictureUrl(profileService.uploadProfilePicture(userId, profilePicture));
             }
             
             return ResponseEntity.ok(profile);
@@ -105,8 +110,30 @@ public class UserProfileController {
 
     // Endpoint to get all profiles excluding the current user
     @GetMapping("/discover")
-    public ResponseEntity<List<UserProfile>> getAllProfilesForDiscovery(@RequestAttribute("userId") Long userId) {
-        List<UserProfile> profiles = profileService.getAllProfilesExcludingUser(userId);
+    public ResponseEntity<List<ProfileCard>> getAllProfilesForDiscovery(@RequestAttribute("userId") Long userId) {
+        List<ProfileCard> profiles = profileService.getAllProfilesExcludingUser(userId);
         return ResponseEntity.ok(profiles);
     }
-} 
\ No newline at end of file
+
+    // Cursor-paginated discovery feed; pass the returned nextCursor to fetch the following page
+    @GetMapping("/discover/page")
+    public ResponseEntity<?> getDiscoveryPage(
+            @RequestAttribute("userId") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            CursorPage<ProfileCard> page = profileService.getDiscoveryPage(userId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Next ranked cards from the user's precomputed candidate queue; cards stay queued until swiped
+    @GetMapping("/discover/next")
+    public ResponseEntity<List<ProfileCard>> getNextCandidates(
+            @RequestAttribute("userId") Long userId,
+            @RequestParam(value = "count", defaultValue = "10") int count) {
+        return ResponseEntity.ok(candidateQueueService.peekCandidates(userId, Math.max(1, Math.min(count, 50))));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.biblov1.exception;
+
+// Thrown when a write-behind send was queued but not confirmed within the ack timeout. The message is still saved and
+// pushed to the room, so the send must not be retried.
+public class ChatWritePendingException extends RuntimeException {
+    public ChatWritePendingException(String message) {
+        super(message);
+    }
+}
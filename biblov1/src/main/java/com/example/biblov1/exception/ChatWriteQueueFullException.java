@@ -0,0 +1,8 @@
+package com.example.biblov1.exception;
+
+// Thrown when the chat write-behind queue has no room left; the send can be retried
+public class ChatWriteQueueFullException extends RuntimeException {
+    public ChatWriteQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.biblov1.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+// Tells foreign-key failures apart from other integrity violations (NOT NULL, unique, length), so only a missing
+// referenced row is reported as "not found"
+public final class ForeignKeyViolations {
+    private static final String SQL_STATE_FOREIGN_KEY = "23503"; // SQL standard
+    private static final String SQL_STATE_H2_REFERENTIAL = "23506";
+    private static final int MYSQL_ROW_IS_REFERENCED = 1451;
+    private static final int MYSQL_NO_REFERENCED_ROW = 1452;
+
+    private ForeignKeyViolations() {
+    }
+
+    public static boolean isForeignKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                return SQL_STATE_FOREIGN_KEY.equals(sql.getSQLState())
+                        || SQL_STATE_H2_REFERENTIAL.equals(sql.getSQLState())
+                        || sql.getErrorCode() == MYSQL_ROW_IS_REFERENCED
+                        || sql.getErrorCode() == MYSQL_NO_REFERENCED_ROW;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.biblov1.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Highest message ID a user has read in a room; messages above it from the other participant count as unread
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "chat_room_read_cursors", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"chat_room_id", "user_id"}) // One cursor per user and room
+})
+public class ChatRoomReadCursor {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+}
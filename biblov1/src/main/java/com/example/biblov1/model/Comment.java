@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_post_id_id", columnList = "post_id, id") // Thread paging and per-post previews
+})
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,12 +2,15 @@ package com.example.biblov1.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Data
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "communities")
 @Table(name = "communities")
 public class Community {
     @Id
@@ -28,6 +31,7 @@ public class Community {
 
     // Using @ElementCollection for simple tags (e.g., String tags)
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "community-tags")
     @CollectionTable(name = "community_tags", joinColumns = @JoinColumn(name = "community_id"))
     @Column(name = "tag")
     private Set<String> tags = new HashSet<>();
@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_chat_room_id_id", columnList = "chat_room_id, id") // Incremental sync and scroll-back
+})
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
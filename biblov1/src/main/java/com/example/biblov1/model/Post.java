@@ -2,13 +2,17 @@ package com.example.biblov1.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_community_created_id", columnList = "community_id, created_at, id") // Keyset feed paging
+})
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,7 +34,18 @@ public class Post {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Denormalized counters. Entity saves never write them (no lost updates from stale copies);
+    // they move only through atomic increments in PostRepository and are repaired by PostCounterReconciler.
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private long likeCount;
+
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private long commentCount;
+
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 50) // Entity loads of many posts fetch hashtags in batches instead of one query per post
     @CollectionTable(name = "post_hashtags", joinColumns = @JoinColumn(name = "post_id"))
     @Column(name = "hashtag")
     private Set<String> hashtags = new HashSet<>();
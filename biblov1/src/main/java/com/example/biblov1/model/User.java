@@ -2,17 +2,23 @@ package com.example.biblov1.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Set;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+// Skills are lazy; skill management loads them through this graph (profile pages read them by user ID)
+@NamedEntityGraph(name = User.WITH_SKILLS, attributeNodes = @NamedAttributeNode("skills"))
 @Table(name = "user",
        uniqueConstraints = {
            @UniqueConstraint(columnNames = "email")
        })
 public class User {
+    public static final String WITH_SKILLS = "User.withSkills";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,7 +37,8 @@ public class User {
     @Size(max = 120)
     private String password;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-skills")
     @JsonManagedReference
     private Set<Skill> skills;
 
@@ -2,11 +2,15 @@ package com.example.biblov1.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 import java.util.ArrayList;
 
 @Data
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profiles")
 @Table(name = "user_profiles")
 public class UserProfile {
     @Id
@@ -44,12 +48,18 @@ public class UserProfile {
     @Column(name = "profile_picture_url")
     private String profilePictureUrl;
 
+    // Lists of profiles (discovery pages, candidate scans) load both collections one batch per 100 profiles
+    // instead of two selects per profile; 100 is also the largest discovery page
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profile-interests")
     @CollectionTable(name = "user_interests", joinColumns = @JoinColumn(name = "profile_id"))
     @Column(name = "interest")
     private List<String> interests = new ArrayList<>();
 
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profile-languages")
     @CollectionTable(name = "user_languages", joinColumns = @JoinColumn(name = "profile_id"))
     private List<LanguageProficiency> languages = new ArrayList<>();
 
@@ -0,0 +1,9 @@
+package com.example.biblov1.payload.request;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class SwipeBatchRequest {
+    private List<SwipeRequest> swipes; // Replayed in order; a later swipe on the same user wins
+}
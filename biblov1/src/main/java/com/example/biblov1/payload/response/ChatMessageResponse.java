@@ -0,0 +1,18 @@
+package com.example.biblov1.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Message as pushed to chat participants over the WebSocket channel
+@Data
+@AllArgsConstructor
+public class ChatMessageResponse {
+    private Long id;
+    private Long chatRoomId;
+    private Long senderId;
+    private String senderName;
+    private String content;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,29 @@
+package com.example.biblov1.payload.response;
+
+import com.example.biblov1.model.ChatRoom;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A chat room by its foreign keys; the inbox (ChatRoomSummary) is what carries names and previews
+@Data
+public class ChatRoomResponse {
+    private Long id;
+    private Long user1Id;
+    private Long user2Id;
+    private Long matchId;
+    private LocalDateTime createdAt;
+
+    public ChatRoomResponse(Long id, Long user1Id, Long user2Id, Long matchId, LocalDateTime createdAt) {
+        this.id = id;
+        this.user1Id = user1Id;
+        this.user2Id = user2Id;
+        this.matchId = matchId;
+        this.createdAt = createdAt;
+    }
+
+    public static ChatRoomResponse from(ChatRoom chatRoom) {
+        return new ChatRoomResponse(chatRoom.getId(), chatRoom.getUser1().getId(), chatRoom.getUser2().getId(),
+                chatRoom.getStudyMatch().getId(), chatRoom.getCreatedAt());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.biblov1.payload.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One inbox row: the room, the other participant and the latest message preview
+@Data
+public class ChatRoomSummary {
+    private Long chatRoomId;
+    private Long peerId;
+    private String peerName;
+    private String peerAvatarUrl;
+    private Long lastMessageId;
+    private String lastMessageSnippet;
+    private LocalDateTime lastMessageAt;
+    private long unreadCount;
+
+    public ChatRoomSummary(Long chatRoomId, Long peerId, String peerName, String peerAvatarUrl,
+                           Long lastMessageId, String lastMessageSnippet, LocalDateTime lastMessageAt, Long unreadCount) {
+        this.chatRoomId = chatRoomId;
+        this.peerId = peerId;
+        this.peerName = peerName;
+        this.peerAvatarUrl = peerAvatarUrl;
+        this.lastMessageId = lastMessageId;
+        this.lastMessageSnippet = lastMessageSnippet;
+        this.lastMessageAt = lastMessageAt;
+        this.unreadCount = unreadCount == null ? 0 : unreadCount;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.biblov1.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor; // Opaque token for the next page, null when there are no more results
+}
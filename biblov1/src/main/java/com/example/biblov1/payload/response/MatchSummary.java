@@ -0,0 +1,24 @@
+package com.example.biblov1.payload.response;
+
+import com.example.biblov1.model.StudyMatch.MatchStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// One of the user's matches, seen from the user's side: the other participant instead of both user entities
+@Data
+public class MatchSummary {
+    private Long id;
+    private Long peerId;
+    private String peerName;
+    private MatchStatus status;
+    private LocalDateTime createdAt;
+
+    public MatchSummary(Long id, Long peerId, String peerName, MatchStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.peerId = peerId;
+        this.peerName = peerName;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+}
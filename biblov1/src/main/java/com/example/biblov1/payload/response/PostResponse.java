@@ -19,7 +19,8 @@ public class PostResponse {
     private Set<String> hashtags;
     private long likesCount;
     private boolean isLiked;
-    private List<CommentResponse> comments; // Assuming a CommentResponse DTO will be created later
+    private List<CommentResponse> comments; // Full thread, or only the newest few on the paginated feed
+    private long commentCount;
 
     // Constructor for creating from Post entity and additional data
     public PostResponse(Long id, String content, String imageUrl, LocalDateTime createdAt, LocalDateTime updatedAt, String authorName, Long communityId, Set<String> hashtags, long likesCount, boolean isLiked, List<CommentResponse> comments) {
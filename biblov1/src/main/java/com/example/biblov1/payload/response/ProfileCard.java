@@ -0,0 +1,53 @@
+package com.example.biblov1.payload.response;
+
+import com.example.biblov1.model.UserProfile;
+import lombok.Data;
+
+import java.util.List;
+
+// A discovery card: the public profile fields only. The user account (password hash, skills) and the
+// profile's email are left out, so serializing a deck never walks the User graph.
+@Data
+public class ProfileCard {
+    private Long id;
+    private Long userId;
+    private String name;
+    private Integer age;
+    private String gender;
+    private String university;
+    private String major;
+    private String location;
+    private String bio;
+    private String profilePictureUrl;
+    private List<String> interests;
+    private List<UserProfile.LanguageProficiency> languages;
+    private UserProfile.LookingFor lookingFor;
+    private UserProfile.SocialLinks socialLinks;
+
+    public static ProfileCard from(UserProfile profile) {
+        return fill(new ProfileCard(), profile);
+    }
+
+    protected static <T extends ProfileCard> T fill(T card, UserProfile profile) {
+        card.setId(profile.getId());
+        card.setUserId(profile.getUser().getId());
+        card.setName(profile.getName());
+        card.setAge(profile.getAge());
+        card.setGender(profile.getGender());
+        card.setUniversity(profile.getUniversity());
+        card.setMajor(profile.getMajor());
+        card.setLocation(profile.getLocation());
+        card.setBio(profile.getBio());
+        card.setProfilePictureUrl(profile.getProfilePictureUrl());
+        card.setInterests(copyOf(profile.getInterests()));
+        card.setLanguages(copyOf(profile.getLanguages()));
+        card.setLookingFor(profile.getLookingFor());
+        card.setSocialLinks(profile.getSocialLinks());
+        return card;
+    }
+
+    // Copied while the profile's session is open, so the cards carry plain lists rather than lazy collections
+    private static <T> List<T> copyOf(List<T> values) {
+        return values == null ? List.of() : List.copyOf(values);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.biblov1.payload.response;
+
+import com.example.biblov1.model.Skill;
+import com.example.biblov1.model.UserProfile;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+// A profile page: the card fields plus the user's skills. Like the card it carries no account fields
+// (password hash, email), so any user's profile can be shown to any other user.
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ProfileView extends ProfileCard {
+    private List<SkillItem> skills;
+
+    public static ProfileView from(UserProfile profile, List<Skill> skills) {
+        ProfileView view = fill(new ProfileView(), profile);
+        view.setSkills(skills.stream()
+                .map(skill -> new SkillItem(skill.getId(), skill.getSkillName(), skill.getLevel()))
+                .toList());
+        return view;
+    }
+
+    public record SkillItem(Long id, String skillName, String level) {
+    }
+}
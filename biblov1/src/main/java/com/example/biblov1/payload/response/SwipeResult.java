@@ -0,0 +1,14 @@
+package com.example.biblov1.payload.response;
+
+import com.example.biblov1.model.UserSwipe.SwipeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SwipeResult {
+    private Long swipedUserId;
+    private SwipeType swipeType;
+    private boolean match;
+    private String error; // Null when the swipe was applied
+}
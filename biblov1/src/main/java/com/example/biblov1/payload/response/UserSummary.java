@@ -0,0 +1,17 @@
+package com.example.biblov1.payload.response;
+
+import lombok.Data;
+
+// A user without the password hash or skills, as listed by /api/users
+@Data
+public class UserSummary {
+    private Long id;
+    private String name;
+    private String email;
+
+    public UserSummary(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+}
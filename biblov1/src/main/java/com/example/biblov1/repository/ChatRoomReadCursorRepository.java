@@ -0,0 +1,27 @@
+package com.example.biblov1.repository;
+
+import com.example.biblov1.model.ChatRoomReadCursor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChatRoomReadCursorRepository extends JpaRepository<ChatRoomReadCursor, Long> {
+
+    // Moves the cursor forward only, so reading an older window never marks newer messages unread again
+    // Scoped to chat_room_read_cursors so cached users and profiles survive every read
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_room_read_cursors"))
+    @Query(value = "insert into chat_room_read_cursors (chat_room_id, user_id, last_read_message_id) " +
+                   "values (:chatRoomId, :userId, :messageId) " +
+                   "on duplicate key update last_read_message_id = greatest(last_read_message_id, values(last_read_message_id))",
+           nativeQuery = true)
+    int advance(@Param("chatRoomId") Long chatRoomId,
+                @Param("userId") Long userId,
+                @Param("messageId") Long messageId);
+}
@@ -1,15 +1,63 @@
 package com.example.biblov1.repository;
 
 import com.example.biblov1.model.ChatRoom;
-import com.example.biblov1.model.User;
 import com.example.biblov1.model.StudyMatch;
+import com.example.biblov1.payload.response.ChatRoomResponse;
+import com.example.biblov1.payload.response.ChatRoomSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
+    interface Participants {
+        Long getUser1Id();
+        Long getUser2Id();
+    }
+
+    @Query("select r.user1.id as user1Id, r.user2.id as user2Id from ChatRoom r where r.id = :chatRoomId")
+    Optional<Participants> findParticipantsById(@Param("chatRoomId") Long chatRoomId);
+
     Optional<ChatRoom> findByStudyMatch(StudyMatch studyMatch);
-    List<ChatRoom> findByUser1OrUser2(User user1, User user2);
+
+    @Query("select new com.example.biblov1.payload.response.ChatRoomResponse(r.id, r.user1.id, r.user2.id, r.studyMatch.id, r.createdAt) " +
+           "from ChatRoom r where r.user1.id = :userId or r.user2.id = :userId order by r.id asc")
+    List<ChatRoomResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    // The user's inbox in one query: peer and avatar, the latest message (a max-ID seek on the
+    // (chat_room_id, id) index) and the count of the peer's messages above the user's read cursor.
+    // The snippet is cut in SQL so long messages are never transferred in full.
+    @Query("select new com.example.biblov1.payload.response.ChatRoomSummary(" +
+           "  r.id, peer.id, peer.name, peerProfile.profilePictureUrl, lm.id, substring(lm.content, 1, :snippetLength), lm.timestamp, " +
+           "  (select count(m) from Message m where m.chatRoom.id = r.id and m.sender.id <> :userId " +
+           "     and m.id > coalesce(rc.lastReadMessageId, 0))) " +
+           "from ChatRoom r " +
+           "join User peer on (r.user1.id = :userId and peer.id = r.user2.id) or (r.user2.id = :userId and peer.id = r.user1.id) " +
+           "left join UserProfile peerProfile on peerProfile.user.id = peer.id " +
+           "left join Message lm on lm.id = (select max(m2.id) from Message m2 where m2.chatRoom.id = r.id) " +
+           "left join ChatRoomReadCursor rc on rc.chatRoom.id = r.id and rc.user.id = :userId " +
+           "where r.user1.id = :userId or r.user2.id = :userId " +
+           "order by coalesce(lm.timestamp, r.createdAt) desc, r.id desc")
+    List<ChatRoomSummary> findInbox(@Param("userId") Long userId, @Param("snippetLength") int snippetLength);
+
+    // One room per match (unique match_id); a no-op when the room already exists
+    // Declares chat_rooms as the only table written, so the insert does not evict the second-level cache
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_rooms"))
+    @Query(value = "insert into chat_rooms (user1_id, user2_id, match_id, created_at) " +
+                   "values (:user1Id, :user2Id, :matchId, :createdAt) " +
+                   "on duplicate key update match_id = match_id",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("user1Id") Long user1Id,
+                       @Param("user2Id") Long user2Id,
+                       @Param("matchId") Long matchId,
+                       @Param("createdAt") LocalDateTime createdAt);
 } 
\ No newline at end of file
@@ -2,12 +2,52 @@ package com.example.biblov1.repository;
 
 import com.example.biblov1.model.Comment;
 import com.example.biblov1.model.Post;
+import com.example.biblov1.payload.response.CommentResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostOrderByCreatedAtAsc(Post post);
-} 
\ No newline at end of file
+
+    // Comment responses for a batch of posts, oldest first, with the author name joined in
+    @Query("select new com.example.biblov1.payload.response.CommentResponse(c.id, c.content, a.name, c.post.id, c.createdAt, c.updatedAt) " +
+           "from Comment c join c.author a where c.post.id in :postIds order by c.createdAt asc, c.id asc")
+    List<CommentResponse> findResponsesByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    // The newest `limit` comments of each post as (id, content, authorName, postId, createdAt, updatedAt) rows in
+    // posting order. ROW_NUMBER numbers each post's comments newest first off the comments(post_id, id) index,
+    // so every post costs one ordered range read instead of a count per comment.
+    @Query(value = "select ranked.id, ranked.content, ranked.author_name, ranked.post_id, ranked.created_at, ranked.updated_at " +
+                   "from (select c.id, c.content, a.name as author_name, c.post_id, c.created_at, c.updated_at, " +
+                   "row_number() over (partition by c.post_id order by c.id desc) as rn " +
+                   "from comments c join `user` a on a.id = c.author_id where c.post_id in (:postIds)) ranked " +
+                   "where ranked.rn <= :limit order by ranked.id",
+           nativeQuery = true)
+    List<Object[]> findLatestByPostIdIn(@Param("postIds") Collection<Long> postIds, @Param("limit") long limit);
+
+    // Keyset page of one post's thread in posting order
+    @Query("select new com.example.biblov1.payload.response.CommentResponse(c.id, c.content, a.name, c.post.id, c.createdAt, c.updatedAt) " +
+           "from Comment c join c.author a where c.post.id = :postId and c.id > :afterId order by c.id asc")
+    List<CommentResponse> findThreadPage(@Param("postId") Long postId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new com.example.biblov1.payload.response.CommentResponse(c.id, c.content, a.name, c.post.id, c.createdAt, c.updatedAt) " +
+           "from Comment c join c.author a where c.id = :commentId")
+    Optional<CommentResponse> findResponseById(@Param("commentId") Long commentId);
+
+    @Query("select c.post.id from Comment c where c.id = :commentId")
+    Optional<Long> findPostIdById(@Param("commentId") Long commentId);
+
+    // Returns the number of rows removed, so of two concurrent deletes only one sees 1
+    @Modifying
+    @Query("delete from Comment c where c.id = :commentId")
+    int deleteCommentById(@Param("commentId") Long commentId);
+}
@@ -2,8 +2,9 @@ package com.example.biblov1.repository;
 
 import com.example.biblov1.model.CommunityMember;
 import com.example.biblov1.model.Community;
-import com.example.biblov1.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -11,7 +12,10 @@ import java.util.Optional;
 @Repository
 public interface CommunityMemberRepository extends JpaRepository<CommunityMember, Long> {
     List<CommunityMember> findByCommunity(Community community);
-    List<CommunityMember> findByUser(User user);
-    Optional<CommunityMember> findByCommunityAndUser(Community community, User user);
-    long countByCommunity(Community community);
+    Optional<CommunityMember> findByCommunityIdAndUserId(Long communityId, Long userId);
+    boolean existsByCommunityIdAndUserId(Long communityId, Long userId);
+    long countByCommunityId(Long communityId);
+
+    @Query("select m.community from CommunityMember m where m.user.id = :userId")
+    List<Community> findCommunitiesByUserId(@Param("userId") Long userId);
 } 
\ No newline at end of file
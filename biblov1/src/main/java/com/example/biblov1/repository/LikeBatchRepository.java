@@ -0,0 +1,47 @@
+package com.example.biblov1.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// JDBC batches used by LikeWriteBuffer. Both statements are idempotent against the likes(post_id, user_id)
+// unique constraint, so replaying a flush after a crash or a failed commit cannot duplicate or fail on rows.
+@Repository
+public class LikeBatchRepository {
+    private static final String INSERT_LIKE = "insert ignore into likes (post_id, user_id, created_at) values (?, ?, ?)";
+    private static final String DELETE_LIKE = "delete from likes where post_id = ? and user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LikeBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Each pair is {postId, userId}
+    public void insertLikes(List<long[]> pairs, LocalDateTime now) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(pairs.size());
+        for (long[] pair : pairs) {
+            rows.add(new Object[]{pair[0], pair[1], createdAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LIKE, rows);
+    }
+
+    public void deleteLikes(List<long[]> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(pairs.size());
+        for (long[] pair : pairs) {
+            rows.add(new Object[]{pair[0], pair[1]});
+        }
+        jdbcTemplate.batchUpdate(DELETE_LIKE, rows);
+    }
+}
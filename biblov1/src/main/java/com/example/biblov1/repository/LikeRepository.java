@@ -1,17 +1,25 @@
 package com.example.biblov1.repository;
 
 import com.example.biblov1.model.Like;
-import com.example.biblov1.model.Post;
 import com.example.biblov1.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
-    Optional<Like> findByPostAndUser(Post post, User user);
-    long countByPost(Post post);
+    Optional<Like> findByPostIdAndUserId(Long postId, Long userId);
+    long countByPostId(Long postId);
     List<Like> findByUser(User user);
+
+    boolean existsByPostIdAndUserId(Long postId, Long userId);
+
+    // Which of the given posts the user has liked
+    @Query("select l.post.id from Like l where l.user.id = :userId and l.post.id in :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
 } 
\ No newline at end of file
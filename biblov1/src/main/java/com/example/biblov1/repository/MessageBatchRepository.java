@@ -0,0 +1,63 @@
+package com.example.biblov1.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+// Multi-row message insert used by the chat write-behind pipeline
+@Repository
+public class MessageBatchRepository {
+    private static final String INSERT_MESSAGE =
+            "insert into messages (chat_room_id, sender_id, content, timestamp) values (?, ?, ?, ?)";
+
+    public record NewMessage(long chatRoomId, long senderId, String content, Timestamp timestamp) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MessageBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Inserts the messages as one JDBC batch and returns their generated IDs in input order
+    public long[] insertMessages(List<NewMessage> messages) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_MESSAGE, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewMessage message = messages.get(i);
+                        ps.setLong(1, message.chatRoomId());
+                        ps.setLong(2, message.senderId());
+                        ps.setString(3, message.content());
+                        ps.setTimestamp(4, message.timestamp());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return messages.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != messages.size()) {
+            throw new IllegalStateException("Expected " + messages.size() + " generated message IDs, got " + generated.size());
+        }
+        long[] ids = new long[generated.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) generated.get(i).values().iterator().next()).longValue();
+        }
+        return ids;
+    }
+}
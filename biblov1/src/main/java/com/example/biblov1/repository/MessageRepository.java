@@ -1,12 +1,32 @@
 package com.example.biblov1.repository;
 
 import com.example.biblov1.model.Message;
-import com.example.biblov1.model.ChatRoom;
+import com.example.biblov1.payload.response.ChatMessageResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    List<Message> findByChatRoomOrderByTimestampAsc(ChatRoom chatRoom);
+    // Reads select the message columns and the sender's name only; no room, user or skills rows are loaded
+    String MESSAGE_RESPONSE = "select new com.example.biblov1.payload.response.ChatMessageResponse(" +
+                              "m.id, m.chatRoom.id, s.id, s.name, m.content, m.timestamp) from Message m join m.sender s ";
+
+    @Query(MESSAGE_RESPONSE + "where m.chatRoom.id = :chatRoomId order by m.id asc")
+    List<ChatMessageResponse> findAllByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+
+    @Query("select max(m.id) from Message m where m.chatRoom.id = :chatRoomId")
+    Optional<Long> findMaxIdByChatRoomId(@Param("chatRoomId") Long chatRoomId);
+
+    // Incremental sync: messages newer than the client's last seen ID, oldest first
+    @Query(MESSAGE_RESPONSE + "where m.chatRoom.id = :chatRoomId and m.id > :afterId order by m.id asc")
+    List<ChatMessageResponse> findAfter(@Param("chatRoomId") Long chatRoomId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Scroll-back: messages older than beforeId, newest first (callers reverse them)
+    @Query(MESSAGE_RESPONSE + "where m.chatRoom.id = :chatRoomId and m.id < :beforeId order by m.id desc")
+    List<ChatMessageResponse> findBefore(@Param("chatRoomId") Long chatRoomId, @Param("beforeId") Long beforeId, Pageable pageable);
 } 
\ No newline at end of file
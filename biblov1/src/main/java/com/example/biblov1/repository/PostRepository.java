@@ -2,12 +2,103 @@ package com.example.biblov1.repository;
 
 import com.example.biblov1.model.Community;
 import com.example.biblov1.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByCommunityOrderByCreatedAtDesc(Community community);
-} 
\ No newline at end of file
+
+    // Flat post rows for feed assembly; avoids loading the eager author/community graphs per post
+    interface FeedRow {
+        Long getId();
+        String getContent();
+        String getImageUrl();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getAuthorId();
+        String getAuthorName();
+        Long getCommunityId();
+        long getLikeCount();
+        long getCommentCount();
+    }
+
+    @Query("select p.id as id, p.content as content, p.imageUrl as imageUrl, p.createdAt as createdAt, " +
+           "p.updatedAt as updatedAt, a.id as authorId, a.name as authorName, p.community.id as communityId, " +
+           "p.likeCount as likeCount, p.commentCount as commentCount " +
+           "from Post p join p.author a where p.community.id = :communityId order by p.createdAt desc, p.id desc")
+    List<FeedRow> findFeedRowsByCommunityId(@Param("communityId") Long communityId);
+
+    // Keyset feed pages on (created_at, id) descending, served by the posts(community_id, created_at, id) index
+    @Query("select p.id as id, p.content as content, p.imageUrl as imageUrl, p.createdAt as createdAt, " +
+           "p.updatedAt as updatedAt, a.id as authorId, a.name as authorName, p.community.id as communityId, " +
+           "p.likeCount as likeCount, p.commentCount as commentCount " +
+           "from Post p join p.author a where p.community.id = :communityId order by p.createdAt desc, p.id desc")
+    List<FeedRow> findFeedPage(@Param("communityId") Long communityId, Pageable pageable);
+
+    @Query("select p.id as id, p.content as content, p.imageUrl as imageUrl, p.createdAt as createdAt, " +
+           "p.updatedAt as updatedAt, a.id as authorId, a.name as authorName, p.community.id as communityId, " +
+           "p.likeCount as likeCount, p.commentCount as commentCount " +
+           "from Post p join p.author a where p.community.id = :communityId " +
+           "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) " +
+           "order by p.createdAt desc, p.id desc")
+    List<FeedRow> findFeedPageBefore(@Param("communityId") Long communityId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("select p.id as id, p.content as content, p.imageUrl as imageUrl, p.createdAt as createdAt, " +
+           "p.updatedAt as updatedAt, a.id as authorId, a.name as authorName, p.community.id as communityId, " +
+           "p.likeCount as likeCount, p.commentCount as commentCount " +
+           "from Post p join p.author a where p.id = :postId")
+    Optional<FeedRow> findFeedRowById(@Param("postId") Long postId);
+
+    // (postId, hashtag) pairs for a batch of posts
+    @Query("select p.id, h from Post p join p.hashtags h where p.id in :postIds")
+    List<Object[]> findHashtagsByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    // Atomic counter updates; the row lock serializes concurrent likes/comments on the same post
+    @Modifying
+    @Query("update Post p set p.likeCount = p.likeCount + :delta where p.id = :postId")
+    int adjustLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("update Post p set p.commentCount = p.commentCount + :delta where p.id = :postId")
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // Exact recount for the posts touched by a like-buffer flush
+    @Modifying
+    @Query("update Post p set p.likeCount = (select count(l) from Like l where l.post.id = p.id) where p.id in :postIds")
+    int recountLikeCounts(@Param("postIds") Collection<Long> postIds);
+
+    @Query("select p.id from Post p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.likeCount from Post p where p.id = :postId")
+    Optional<Long> findLikeCountById(@Param("postId") Long postId);
+
+    @Query("select coalesce(max(p.id), 0) from Post p")
+    long findMaxId();
+
+    // Recompute counters from likes/comments for one id window, touching only rows that drifted
+    @Modifying
+    @Query("update Post p set p.likeCount = (select count(l) from Like l where l.post.id = p.id) " +
+           "where p.id between :fromId and :toId " +
+           "and p.likeCount <> (select count(l) from Like l where l.post.id = p.id)")
+    int reconcileLikeCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @Query("update Post p set p.commentCount = (select count(c) from Comment c where c.post.id = p.id) " +
+           "where p.id between :fromId and :toId " +
+           "and p.commentCount <> (select count(c) from Comment c where c.post.id = p.id)")
+    int reconcileCommentCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -2,8 +2,15 @@ package com.example.biblov1.repository;
 
 import com.example.biblov1.model.Skill;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface SkillRepository extends JpaRepository<Skill, Long> {
     List<Skill> findByUserId(Long userId);
+
+    // (userId, skillName) pairs for a batch of users, used when encoding profiles for scoring
+    @Query("select s.user.id, s.skillName from Skill s where s.user.id in :userIds")
+    List<Object[]> findSkillNamesByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -3,8 +3,17 @@ package com.example.biblov1.repository;
 import com.example.biblov1.model.StudyMatch;
 import com.example.biblov1.model.User;
 import com.example.biblov1.model.StudyMatch.MatchStatus;
+import com.example.biblov1.payload.response.MatchSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +22,32 @@ public interface StudyMatchRepository extends JpaRepository<StudyMatch, Long> {
     List<StudyMatch> findByUser1OrUser2(User user1, User user2);
     
     Optional<StudyMatch> findByUser1AndUser2(User user1, User user2);
-    List<StudyMatch> findByUser1AndStatus(User user1, MatchStatus status);
-    List<StudyMatch> findByUser2AndStatus(User user2, MatchStatus status);
-} 
\ No newline at end of file
+
+    // The user's matches in one query, each with the other participant's ID and name
+    @Query("select new com.example.biblov1.payload.response.MatchSummary(m.id, peer.id, peer.name, m.status, m.createdAt) " +
+           "from StudyMatch m " +
+           "join User peer on (m.user1.id = :userId and peer.id = m.user2.id) or (m.user2.id = :userId and peer.id = m.user1.id) " +
+           "where (m.user1.id = :userId or m.user2.id = :userId) and m.status = :status " +
+           "order by m.createdAt desc, m.id desc")
+    List<MatchSummary> findSummariesByUserId(@Param("userId") Long userId, @Param("status") MatchStatus status);
+
+    // Creates the pair's match row or flips an existing one to MATCHED; callers pass user1Id < user2Id
+    // Query space hint keeps the native upsert from invalidating cached users and profiles
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "study_matches"))
+    @Query(value = "insert into study_matches (user1_id, user2_id, status, is_matched, is_accepted, created_at, updated_at) " +
+                   "values (:user1Id, :user2Id, 'MATCHED', false, false, :now, :now) " +
+                   "on duplicate key update " +
+                   "updated_at = case when status = 'MATCHED' then updated_at else values(updated_at) end, " +
+                   "status = 'MATCHED'",
+           nativeQuery = true)
+    int upsertMatched(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id, @Param("now") LocalDateTime now);
+
+    @Query("select m.id from StudyMatch m where m.user1.id = :user1Id and m.user2.id = :user2Id")
+    Optional<Long> findIdByUserIds(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
+
+    // (matchId, user1Id, user2Id) rows for the user's matches with any of the given users
+    @Query("select m.id, m.user1.id, m.user2.id from StudyMatch m " +
+           "where (m.user1.id = :userId and m.user2.id in :otherIds) or (m.user2.id = :userId and m.user1.id in :otherIds)")
+    List<Object[]> findMatchIdsWith(@Param("userId") Long userId, @Param("otherIds") Collection<Long> otherIds);
+}
@@ -0,0 +1,60 @@
+package com.example.biblov1.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// JDBC batch variants of the swipe/match/chat-room upserts, used when replaying many swipes in one transaction.
+// Each method is a single batched round-trip; rows are keyed by the same unique constraints as the single-swipe path.
+@Repository
+public class SwipeBatchRepository {
+    private static final String UPSERT_SWIPE =
+            "insert into user_swipes (swiper_id, swiped_id, swipe_type, created_at) values (?, ?, ?, ?) " +
+            "on duplicate key update swipe_type = values(swipe_type)";
+    private static final String UPSERT_MATCH =
+            "insert into study_matches (user1_id, user2_id, status, is_matched, is_accepted, created_at, updated_at) " +
+            "values (?, ?, 'MATCHED', false, false, ?, ?) " +
+            "on duplicate key update " +
+            "updated_at = case when status = 'MATCHED' then updated_at else values(updated_at) end, " +
+            "status = 'MATCHED'";
+    private static final String INSERT_CHAT_ROOM =
+            "insert into chat_rooms (user1_id, user2_id, match_id, created_at) values (?, ?, ?, ?) " +
+            "on duplicate key update match_id = match_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SwipeBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // swipeTypes maps swiped user ID to the swipe type name
+    public void upsertSwipes(Long swiperId, Map<Long, String> swipeTypes, LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(swipeTypes.size());
+        swipeTypes.forEach((swipedId, swipeType) -> rows.add(new Object[]{swiperId, swipedId, swipeType, createdAt}));
+        jdbcTemplate.batchUpdate(UPSERT_SWIPE, rows);
+    }
+
+    public void upsertMatches(Long userId, Iterable<Long> otherUserIds, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>();
+        for (Long otherUserId : otherUserIds) {
+            // Same normalized ordering as MatchService: user1_id < user2_id
+            rows.add(new Object[]{Math.min(userId, otherUserId), Math.max(userId, otherUserId), timestamp, timestamp});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_MATCH, rows);
+    }
+
+    // matchIds maps the other participant's user ID to the match ID
+    public void insertChatRoomsIfAbsent(Long userId, Map<Long, Long> matchIds, LocalDateTime now) {
+        Timestamp createdAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(matchIds.size());
+        matchIds.forEach((otherUserId, matchId) -> rows.add(new Object[]{userId, otherUserId, matchId, createdAt}));
+        jdbcTemplate.batchUpdate(INSERT_CHAT_ROOM, rows);
+    }
+}
@@ -1,13 +1,32 @@
 package com.example.biblov1.repository;
 
 import com.example.biblov1.model.UserProfile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
- 
+
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
     Optional<UserProfile> findByUserId(Long userId);
+
     Optional<UserProfile> findByEmail(String email);
-    
+
     List<UserProfile> findByUserIdNot(Long userId);
-} 
\ No newline at end of file
+
+    // Every profile with its user in one query, rather than a user select per profile
+    @Query("select p from UserProfile p join fetch p.user")
+    List<UserProfile> findAllWithUser();
+
+    @Query("select p from UserProfile p join fetch p.user u where u.id in :userIds")
+    List<UserProfile> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // Keyset page of profiles the user has not swiped on yet; the exclusion is an anti-join on user_swipes
+    @Query("select p from UserProfile p join fetch p.user u " +
+           "where u.id <> :userId and p.id > :afterId " +
+           "and not exists (select 1 from UserSwipe s where s.swiper.id = :userId and s.swiped.id = u.id) " +
+           "order by p.id asc")
+    List<UserProfile> findDiscoverableAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -1,10 +1,32 @@
 package com.example.biblov1.repository;
 
 import com.example.biblov1.model.User;
+import com.example.biblov1.payload.response.UserSummary;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @EntityGraph(User.WITH_SKILLS)
+    Optional<User> findWithSkillsById(Long id);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.biblov1.payload.response.UserSummary(u.id, u.name, u.email) from User u order by u.id asc")
+    List<UserSummary> findAllSummaries();
+
+    @Query("select u.name from User u where u.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+
+    // (id, name) rows
+    @Query("select u.id, u.name from User u where u.id in :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
 }
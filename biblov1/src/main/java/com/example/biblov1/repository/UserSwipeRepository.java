@@ -2,8 +2,16 @@ package com.example.biblov1.repository;
 
 import com.example.biblov1.model.UserSwipe;
 import com.example.biblov1.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +20,33 @@ public interface UserSwipeRepository extends JpaRepository<UserSwipe, Long> {
     Optional<UserSwipe> findBySwiperAndSwiped(User swiper, User swiped);
     
     List<UserSwipe> findBySwiper(User swiper);
-} 
\ No newline at end of file
+
+    @Query("select s.swiped.id from UserSwipe s where s.swiper.id = :swiperId")
+    List<Long> findSwipedIdsBySwiperId(@Param("swiperId") Long swiperId);
+
+    // Insert-or-update keyed on the (swiper_id, swiped_id) unique constraint; created_at keeps the first swipe time
+    // Only user_swipes is written; without the hint Hibernate would clear every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_swipes"))
+    @Query(value = "insert into user_swipes (swiper_id, swiped_id, swipe_type, created_at) " +
+                   "values (:swiperId, :swipedId, :swipeType, :createdAt) " +
+                   "on duplicate key update swipe_type = values(swipe_type)",
+           nativeQuery = true)
+    int upsertSwipe(@Param("swiperId") Long swiperId,
+                    @Param("swipedId") Long swipedId,
+                    @Param("swipeType") String swipeType,
+                    @Param("createdAt") LocalDateTime createdAt);
+
+    @Query("select count(s) > 0 from UserSwipe s " +
+           "where s.swiper.id = :swiperId and s.swiped.id = :swipedId and s.swipeType = :swipeType")
+    boolean existsSwipe(@Param("swiperId") Long swiperId,
+                        @Param("swipedId") Long swipedId,
+                        @Param("swipeType") UserSwipe.SwipeType swipeType);
+
+    // Which of the given users have already LIKEd the swiper: reciprocity for a whole batch in one query
+    @Query("select s.swiper.id from UserSwipe s " +
+           "where s.swiped.id = :swiperId and s.swiper.id in :candidateIds and s.swipeType = :swipeType")
+    List<Long> findSwiperIdsBySwipedIdAndSwipeType(@Param("swiperId") Long swiperId,
+                                                   @Param("candidateIds") Collection<Long> candidateIds,
+                                                   @Param("swipeType") UserSwipe.SwipeType swipeType);
+}
@@ -0,0 +1,277 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.model.UserProfile;
+import com.example.biblov1.payload.response.ProfileCard;
+import com.example.biblov1.repository.UserProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+// Keeps a bounded, pre-ranked queue of the next candidate user IDs for each swiping user.
+// Serving a card reads the head of the queue; swipes consume entries and low queues are refilled in the background.
+@Service
+public class CandidateQueueService {
+    private static final Logger logger = LoggerFactory.getLogger(CandidateQueueService.class);
+
+    private final UserProfileRepository profileRepository;
+    private final SwipedUserIndex swipedUserIndex;
+    private final ProfileFeatureEncoder featureEncoder;
+    private final CompatibilityScoringEngine scoringEngine;
+    private final TaskExecutor refillExecutor;
+    private final TransactionTemplate readOnlyTx;
+
+    private final int queueSize;
+    private final int lowWaterMark;
+    private final int scanSize;
+    private final int maxUsers;
+
+    private final LinkedHashMap<Long, CandidateQueue> queues = new LinkedHashMap<>(256, 0.75f, true);
+
+    public CandidateQueueService(UserProfileRepository profileRepository,
+                                 SwipedUserIndex swipedUserIndex,
+                                 ProfileFeatureEncoder featureEncoder,
+                                 CompatibilityScoringEngine scoringEngine,
+                                 @Qualifier("candidateRefillExecutor") TaskExecutor refillExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.discovery.queue.size:50}") int queueSize,
+                                 @Value("${app.discovery.queue.low-water-mark:10}") int lowWaterMark,
+                                 @Value("${app.discovery.queue.scan-size:500}") int scanSize,
+                                 @Value("${app.discovery.queue.max-users:10000}") int maxUsers) {
+        this.profileRepository = profileRepository;
+        this.swipedUserIndex = swipedUserIndex;
+        this.featureEncoder = featureEncoder;
+        this.scoringEngine = scoringEngine;
+        this.refillExecutor = refillExecutor;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.queueSize = queueSize;
+        this.lowWaterMark = lowWaterMark;
+        this.scanSize = scanSize;
+        this.maxUsers = maxUsers;
+    }
+
+    // Returns the next candidate profiles without consuming them; a swipe is what removes a card
+    public List<ProfileCard> peekCandidates(Long userId, int count) {
+        CandidateQueue queue = queueFor(userId);
+        if (!queue.filledOnce) {
+            synchronized (queue.refillLock) {
+                if (!queue.filledOnce) {
+                    // First visit: fill on the request thread so the deck is never empty on open
+                    refill(userId, queue);
+                }
+            }
+        }
+        // A short or empty deck keeps asking for more, so profiles registered since the last scan show up without a swipe
+        if (queue.size() <= lowWaterMark) {
+            scheduleRefill(userId, queue);
+        }
+
+        List<Long> candidateIds = queue.peek(count);
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ProfileCard> cardsByUserId = readOnlyTx.execute(status -> profileRepository.findByUserIdIn(candidateIds).stream()
+                .collect(Collectors.toMap(profile -> profile.getUser().getId(), ProfileCard::from)));
+        return candidateIds.stream()
+                .map(cardsByUserId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Called for every swipe so the swiped candidate never comes back from the queue
+    public void consume(Long swiperId, Long swipedId) {
+        CandidateQueue queue;
+        synchronized (queues) {
+            queue = queues.get(swiperId);
+        }
+        if (queue == null) {
+            return;
+        }
+        queue.remove(swipedId);
+        if (queue.size() > lowWaterMark) {
+            return;
+        }
+        // Refill only once the swipe is committed, otherwise the scan could pick the swiped user up again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRefill(swiperId, queue);
+                }
+            });
+        } else {
+            scheduleRefill(swiperId, queue);
+        }
+    }
+
+    public void evict(Long userId) {
+        synchronized (queues) {
+            queues.remove(userId);
+        }
+    }
+
+    private CandidateQueue queueFor(Long userId) {
+        synchronized (queues) {
+            CandidateQueue queue = queues.get(userId);
+            if (queue == null) {
+                queue = new CandidateQueue();
+                queues.put(userId, queue);
+                Iterator<Long> eldest = queues.keySet().iterator();
+                while (queues.size() > maxUsers && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            return queue;
+        }
+    }
+
+    private void scheduleRefill(Long userId, CandidateQueue queue) {
+        if (!queue.markRefilling()) {
+            return;
+        }
+        try {
+            refillExecutor.execute(() -> {
+                try {
+                    synchronized (queue.refillLock) {
+                        refill(userId, queue);
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Candidate refill failed for user {}: {}", userId, e.getMessage());
+                } finally {
+                    queue.clearRefilling();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // The pool is saturated; the next read or swipe on a short deck schedules the refill again
+            queue.clearRefilling();
+            logger.debug("Candidate refill for user {} rejected: {}", userId, e.getMessage());
+        }
+    }
+
+    // Tops the queue up from the ranked leftovers of the last window, then scans and ranks the next window of
+    // unswiped profiles; whatever does not fit is kept for the next refill instead of being skipped.
+    // Callers hold the queue's refill lock, which never blocks swipes consuming from the queue itself.
+    private void refill(Long userId, CandidateQueue queue) {
+        topUp(userId, queue, queue.overflow);
+        if (queue.size() >= queueSize) {
+            queue.filledOnce = true;
+            return;
+        }
+
+        List<Long> ranked = readOnlyTx.execute(status -> {
+            UserProfile viewer = profileRepository.findByUserId(userId).orElse(null);
+            List<UserProfile> window = profileRepository.findDiscoverableAfter(userId, queue.scanCursor, PageRequest.of(0, scanSize));
+            if (window.size() < scanSize) {
+                queue.scanCursor = 0L; // Reached the end of the table; wrap around on the next refill
+            } else {
+                queue.scanCursor = window.get(window.size() - 1).getId();
+            }
+
+            Set<Long> queued = queue.snapshot();
+            List<UserProfile> fresh = window.stream()
+                    .filter(candidate -> !queued.contains(candidate.getUser().getId()))
+                    .collect(Collectors.toList());
+            if (viewer == null) {
+                return fresh.stream().map(candidate -> candidate.getUser().getId()).collect(Collectors.toList());
+            }
+
+            ProfileFeatures viewerFeatures = featureEncoder.encodeAll(List.of(viewer)).get(0);
+            int[] order = scoringEngine.rank(viewerFeatures, featureEncoder.encodeAll(fresh));
+            List<Long> rankedIds = new ArrayList<>(order.length);
+            for (int index : order) {
+                rankedIds.add(fresh.get(index).getUser().getId());
+            }
+            return rankedIds;
+        });
+
+        queue.filledOnce = true;
+        queue.overflow.addAll(ranked);
+        topUp(userId, queue, queue.overflow);
+    }
+
+    private void topUp(Long userId, CandidateQueue queue, ArrayDeque<Long> ranked) {
+        if (ranked.isEmpty()) {
+            return;
+        }
+        // Swipes that landed since the candidate was ranked are filtered out via the swiped index
+        LongPredicate swiped = swipedUserIndex.swipedBy(userId);
+        while (queue.size() < queueSize && !ranked.isEmpty()) {
+            Long candidateId = ranked.pollFirst();
+            if (!swiped.test(candidateId)) {
+                queue.offer(candidateId);
+            }
+        }
+    }
+
+    private static final class CandidateQueue {
+        private final ArrayDeque<Long> ids = new ArrayDeque<>();
+        private final Object refillLock = new Object();
+        // Ranked candidates of the last scanned window that did not fit yet; guarded by refillLock
+        private final ArrayDeque<Long> overflow = new ArrayDeque<>();
+        private boolean refilling;
+        private volatile boolean filledOnce;
+        private volatile long scanCursor;
+
+        synchronized List<Long> peek(int count) {
+            List<Long> head = new ArrayList<>(Math.min(count, ids.size()));
+            Iterator<Long> it = ids.iterator();
+            while (head.size() < count && it.hasNext()) {
+                head.add(it.next());
+            }
+            return head;
+        }
+
+        synchronized void offer(Long id) {
+            if (!ids.contains(id)) {
+                ids.addLast(id);
+            }
+        }
+
+        synchronized void remove(Long id) {
+            ids.remove(id);
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+
+        synchronized Set<Long> snapshot() {
+            return new HashSet<>(ids);
+        }
+
+        synchronized boolean markRefilling() {
+            if (refilling) {
+                return false;
+            }
+            refilling = true;
+            return true;
+        }
+
+        synchronized void clearRefilling() {
+            refilling = false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.payload.response.ChatMessageResponse;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Fans saved chat messages out to both participants' user queues
+@Component
+public class ChatMessagePublisher {
+    public static final String MESSAGE_QUEUE = "/queue/messages";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ChatMessagePublisher(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageSaved(ChatMessageSavedEvent event) {
+        publish(event.message(), event.user1Id(), event.user2Id());
+    }
+
+    // Callers must only publish committed messages
+    public void publish(ChatMessageResponse message, long user1Id, long user2Id) {
+        messagingTemplate.convertAndSendToUser(String.valueOf(user1Id), MESSAGE_QUEUE, message);
+        if (user1Id != user2Id) {
+            messagingTemplate.convertAndSendToUser(String.valueOf(user2Id), MESSAGE_QUEUE, message);
+        }
+    }
+}
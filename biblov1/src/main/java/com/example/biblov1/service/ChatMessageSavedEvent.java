@@ -0,0 +1,7 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.payload.response.ChatMessageResponse;
+
+// Published inside the saving transaction; delivered to participants only once it commits
+public record ChatMessageSavedEvent(ChatMessageResponse message, Long user1Id, Long user2Id) {
+}
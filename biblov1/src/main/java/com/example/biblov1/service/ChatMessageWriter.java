@@ -0,0 +1,185 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.exception.ChatWriteQueueFullException;
+import com.example.biblov1.payload.response.ChatMessageResponse;
+import com.example.biblov1.repository.MessageBatchRepository;
+import com.example.biblov1.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Optional write-behind path for chat messages. Senders enqueue into a bounded queue and a single writer thread
+// persists everything queued so far as one multi-row insert in one transaction (a group commit). While one batch
+// commits the next one accumulates, so throughput grows with batch size instead of being capped by commit latency.
+// Each sender's future completes only after its batch has committed. When a batch fails its messages are retried one
+// by one, so a single bad row fails only its own sender. Once stopping, submits are refused and anything the writer
+// did not get to is failed, so no sender waits on a future that never completes.
+@Component
+public class ChatMessageWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ChatMessageWriter.class);
+
+    private final MessageBatchRepository messageBatchRepository;
+    private final UserRepository userRepository;
+    private final ChatMessagePublisher messagePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingMessage> queue;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public ChatMessageWriter(MessageBatchRepository messageBatchRepository,
+                             UserRepository userRepository,
+                             ChatMessagePublisher messagePublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.chat.write-behind.enabled:false}") boolean enabled,
+                             @Value("${app.chat.write-behind.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.chat.write-behind.max-batch-size:500}") int maxBatchSize) {
+        this.messageBatchRepository = messageBatchRepository;
+        this.userRepository = userRepository;
+        this.messagePublisher = messagePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::run, "chat-writer");
+        writerThread.start();
+    }
+
+    // Participation must already be checked; the returned future completes once the message is durable
+    public CompletableFuture<ChatMessageResponse> submit(long chatRoomId, long user1Id, long user2Id, long senderId, String content) {
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Message content cannot be empty");
+        }
+        if (!running) {
+            throw new IllegalStateException("Chat writer is not running");
+        }
+        PendingMessage pending = new PendingMessage(chatRoomId, user1Id, user2Id, senderId, content, LocalDateTime.now(), new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new ChatWriteQueueFullException("Chat is busy, please retry");
+        }
+        // stop() may have begun after the check above; if the message is still queued, take it back. Otherwise the
+        // writer or stop() already owns it and will complete its future.
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("Chat writer is not running");
+        }
+        return pending.ack;
+    }
+
+    private void run() {
+        List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        failQueued();
+    }
+
+    private void write(List<PendingMessage> batch) {
+        List<MessageBatchRepository.NewMessage> rows = new ArrayList<>(batch.size());
+        Set<Long> senderIds = new HashSet<>();
+        for (PendingMessage pending : batch) {
+            rows.add(new MessageBatchRepository.NewMessage(pending.chatRoomId, pending.senderId, pending.content, Timestamp.valueOf(pending.timestamp)));
+            senderIds.add(pending.senderId);
+        }
+
+        long[] ids;
+        Map<Long, String> senderNames = new HashMap<>();
+        try {
+            ids = transactionTemplate.execute(status -> {
+                for (Object[] row : userRepository.findNamesByIdIn(senderIds)) {
+                    senderNames.put((Long) row[0], (String) row[1]);
+                }
+                return messageBatchRepository.insertMessages(rows);
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                logger.warn("Chat message write failed: {}", e.getMessage());
+                batch.get(0).ack.completeExceptionally(e);
+                return;
+            }
+            logger.warn("Chat write batch of {} messages failed, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> write(List.of(pending)));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage pending = batch.get(i);
+            ChatMessageResponse saved = new ChatMessageResponse(ids[i], pending.chatRoomId, pending.senderId,
+                    senderNames.get(pending.senderId), pending.content, pending.timestamp);
+            pending.ack.complete(saved);
+            messagePublisher.publish(saved, pending.user1Id, pending.user2Id);
+        }
+    }
+
+    // Stops accepting messages and writes out everything already queued; whatever is left when the writer has not
+    // finished in time is failed
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        if (writerThread.isAlive()) {
+            logger.warn("Chat writer did not finish within 30 seconds, failing the messages still queued");
+        }
+        failQueued();
+    }
+
+    private void failQueued() {
+        List<PendingMessage> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (PendingMessage pending : leftover) {
+            pending.ack.completeExceptionally(new IllegalStateException("Chat writer stopped before the message was saved"));
+        }
+    }
+
+    private record PendingMessage(long chatRoomId, long user1Id, long user2Id, long senderId, String content,
+                                  LocalDateTime timestamp, CompletableFuture<ChatMessageResponse> ack) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.repository.ChatRoomRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// Room ID -> the room's two participant IDs, used for every chat authorization check instead of loading the
+// ChatRoom and its users. Participants never change once a room exists, so entries are never stale while the room
+// lives: rooms created through ChatService are added once their transaction commits, others load on first use
+// with a two-column query, and only the least recently used room is dropped to bound memory. Rooms are never deleted
+// by the application and their IDs are never reused, so there is nothing to evict per room.
+@Component
+public class ChatRoomMembershipCache {
+    private static final long[] NO_ROOM = new long[0];
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final int maxSize;
+    private final LinkedHashMap<Long, long[]> participants = new LinkedHashMap<>(256, 0.75f, true);
+
+    public ChatRoomMembershipCache(ChatRoomRepository chatRoomRepository,
+                                   @Value("${app.chat.membership-cache.max-size:100000}") int maxSize) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.maxSize = maxSize;
+    }
+
+    public boolean roomExists(Long chatRoomId) {
+        return participantsOf(chatRoomId).length == 2;
+    }
+
+    public boolean isParticipant(Long chatRoomId, Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        long[] pair = participantsOf(chatRoomId);
+        return pair.length == 2 && (pair[0] == userId || pair[1] == userId);
+    }
+
+    // Caches the pair once the surrounding transaction commits, so a rolled-back room never authorizes anyone
+    public void put(Long chatRoomId, Long user1Id, Long user2Id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(chatRoomId, user1Id, user2Id);
+                }
+            });
+        } else {
+            cache(chatRoomId, user1Id, user2Id);
+        }
+    }
+
+    public void clear() {
+        synchronized (participants) {
+            participants.clear();
+        }
+    }
+
+    // {user1Id, user2Id}, or an empty array when the room does not exist
+    public long[] participantsOf(Long chatRoomId) {
+        long[] pair;
+        synchronized (participants) {
+            pair = participants.get(chatRoomId);
+        }
+        if (pair != null) {
+            return pair;
+        }
+        pair = chatRoomRepository.findParticipantsById(chatRoomId)
+                .map(p -> new long[]{p.getUser1Id(), p.getUser2Id()})
+                .orElse(NO_ROOM);
+        if (pair.length == 2) {
+            // Unknown rooms are not cached: the room may be created a moment later
+            store(chatRoomId, pair);
+        }
+        return pair;
+    }
+
+    private void cache(Long chatRoomId, Long user1Id, Long user2Id) {
+        store(chatRoomId, new long[]{user1Id, user2Id});
+    }
+
+    // Evicts from the cold end one room at a time, so active rooms keep their entries
+    private void store(Long chatRoomId, long[] pair) {
+        synchronized (participants) {
+            participants.put(chatRoomId, pair);
+            Iterator<Long> eldest = participants.keySet().iterator();
+            while (participants.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.example.biblov1.service;
 
+import com.example.biblov1.exception.ChatWritePendingException;
 import com.example.biblov1.model.ChatRoom;
 import com.example.biblov1.model.Message;
 import com.example.biblov1.model.User;
 import com.example.biblov1.model.StudyMatch;
+import com.example.biblov1.payload.response.ChatMessageResponse;
+import com.example.biblov1.payload.response.ChatRoomResponse;
+import com.example.biblov1.payload.response.ChatRoomSummary;
+import com.example.biblov1.repository.ChatRoomReadCursorRepository;
 import com.example.biblov1.repository.ChatRoomRepository;
 import com.example.biblov1.repository.MessageRepository;
 import com.example.biblov1.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class ChatService {
@@ -21,12 +35,32 @@ public class ChatService {
     private final ChatRoomRepository chatRoomRepository;
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChatRoomReadCursorRepository readCursorRepository;
+    private final ChatRoomMembershipCache membershipCache;
+    private final ChatMessageWriter chatMessageWriter;
+
+    @Value("${app.chat.message-page-size:50}")
+    private int messagePageSize;
+
+    @Value("${app.chat.message-max-page-size:200}")
+    private int messageMaxPageSize;
+
+    @Value("${app.chat.inbox-snippet-length:120}")
+    private int inboxSnippetLength;
+
+    @Value("${app.chat.write-behind.ack-timeout-ms:5000}")
+    private long writeAckTimeoutMs;
 
     @Autowired
-    public ChatService(ChatRoomRepository chatRoomRepository, MessageRepository messageRepository, UserRepository userRepository) {
+    public ChatService(ChatRoomRepository chatRoomRepository, MessageRepository messageRepository, UserRepository userRepository, ApplicationEventPublisher eventPublisher, ChatRoomReadCursorRepository readCursorRepository, ChatRoomMembershipCache membershipCache, ChatMessageWriter chatMessageWriter) {
         this.chatRoomRepository = chatRoomRepository;
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.readCursorRepository = readCursorRepository;
+        this.membershipCache = membershipCache;
+        this.chatMessageWriter = chatMessageWriter;
     }
 
     @Transactional
@@ -35,43 +69,96 @@ public class ChatService {
         chatRoom.setUser1(user1);
         chatRoom.setUser2(user2);
         chatRoom.setStudyMatch(studyMatch);
-        return chatRoomRepository.save(chatRoom);
+        ChatRoom saved = chatRoomRepository.save(chatRoom);
+        membershipCache.put(saved.getId(), user1.getId(), user2.getId());
+        return saved;
     }
 
+    public boolean isWriteBehindEnabled() {
+        return chatMessageWriter.isEnabled();
+    }
+
+    // Authorization comes from the membership cache and the room and sender are set as references, so sending
+    // reads neither the chat_rooms row nor the user graph; only the sender's name is selected for the push.
     @Transactional
-    public Message saveMessage(Long chatRoomId, Long senderId, String content) {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("ChatRoom not found"));
-        User sender = userRepository.findById(senderId)
+    public ChatMessageResponse saveMessage(Long chatRoomId, Long senderId, String content) {
+        requireContent(content);
+        long[] participants = authorize(chatRoomId, senderId, "Sender is not a participant of this chat room.");
+        String senderName = userRepository.findNameById(senderId)
                 .orElseThrow(() -> new RuntimeException("Sender not found"));
 
-        // Ensure sender is part of the chat room
-        if (!isParticipant(chatRoom, senderId)) {
-            throw new AccessDeniedException("Sender is not a participant of this chat room.");
-        }
-
         Message message = new Message();
-        message.setChatRoom(chatRoom);
-        message.setSender(sender);
+        message.setChatRoom(chatRoomRepository.getReferenceById(chatRoomId));
+        message.setSender(userRepository.getReferenceById(senderId));
         message.setContent(content);
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+
+        // Pushed to both participants after commit, so clients never see a message that was rolled back
+        ChatMessageResponse pushed = new ChatMessageResponse(saved.getId(), chatRoomId, senderId, senderName, saved.getContent(), saved.getTimestamp());
+        eventPublisher.publishEvent(new ChatMessageSavedEvent(pushed, participants[0], participants[1]));
+        return pushed;
     }
 
-    @Transactional(readOnly = true)
-    public List<Message> getMessagesByChatRoom(Long chatRoomId, Long requesterId) {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("ChatRoom not found"));
-        if (!isParticipant(chatRoom, requesterId)) {
-            throw new AccessDeniedException("User is not a participant of this chat room.");
+    // Write-behind send: checks participation against the membership cache, queues the message for the next group
+    // commit and waits until that commit is done. Deliberately not transactional, so no connection is held while waiting.
+    // Giving up on the wait does not withdraw the message, so that case is reported as pending rather than failed.
+    public ChatMessageResponse enqueueMessage(Long chatRoomId, Long senderId, String content) {
+        requireContent(content);
+        long[] participants = authorize(chatRoomId, senderId, "Sender is not a participant of this chat room.");
+        CompletableFuture<ChatMessageResponse> ack = chatMessageWriter.submit(chatRoomId, participants[0], participants[1], senderId, content);
+        try {
+            return ack.get(writeAckTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Message could not be saved", e.getCause());
+        } catch (TimeoutException e) {
+            throw new ChatWritePendingException("Message accepted and will be delivered once saved");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChatWritePendingException("Message accepted and will be delivered once saved");
         }
-        return messageRepository.findByChatRoomOrderByTimestampAsc(chatRoom);
+    }
+
+    @Transactional
+    public List<ChatMessageResponse> getMessagesByChatRoom(Long chatRoomId, Long requesterId) {
+        authorize(chatRoomId, requesterId, "User is not a participant of this chat room.");
+        return markRead(chatRoomId, requesterId, messageRepository.findAllByChatRoomId(chatRoomId));
+    }
+
+    // A window of a room's messages in ascending ID order. afterId returns the oldest messages newer than it
+    // (sync after reconnect), beforeId the newest messages older than it (scroll-back), neither the latest page.
+    @Transactional
+    public List<ChatMessageResponse> getMessagesPage(Long chatRoomId, Long requesterId, Long afterId, Long beforeId, Integer limit) {
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("afterId and beforeId cannot be combined");
+        }
+        int pageSize = limit == null ? messagePageSize : Math.max(1, Math.min(limit, messageMaxPageSize));
+        authorize(chatRoomId, requesterId, "User is not a participant of this chat room.");
+
+        PageRequest page = PageRequest.of(0, pageSize);
+        if (afterId != null) {
+            return markRead(chatRoomId, requesterId, messageRepository.findAfter(chatRoomId, afterId, page));
+        }
+        List<ChatMessageResponse> newestFirst = messageRepository.findBefore(chatRoomId, beforeId != null ? beforeId : Long.MAX_VALUE, page);
+        Collections.reverse(newestFirst);
+        return markRead(chatRoomId, requesterId, newestFirst);
+    }
+
+    // For messages the client received over the WebSocket without fetching them; capped at the room's newest message
+    @Transactional
+    public void markReadUpTo(Long chatRoomId, Long userId, Long messageId) {
+        authorize(chatRoomId, userId, "User is not a participant of this chat room.");
+        messageRepository.findMaxIdByChatRoomId(chatRoomId)
+                .ifPresent(maxId -> readCursorRepository.advance(chatRoomId, userId, Math.min(messageId, maxId)));
     }
 
     @Transactional(readOnly = true)
-    public List<ChatRoom> getUserChatRooms(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return chatRoomRepository.findByUser1OrUser2(user, user);
+    public List<ChatRoomSummary> getInbox(Long userId) {
+        return chatRoomRepository.findInbox(userId, inboxSnippetLength);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChatRoomResponse> getUserChatRooms(Long userId) {
+        return chatRoomRepository.findResponsesByUserId(userId);
     }
 
     // Method to find an existing chat room or create a new one if it doesn't exist
@@ -87,19 +174,46 @@ public class ChatService {
         Optional<ChatRoom> existingChatRoom = chatRoomRepository.findByStudyMatch(studyMatch);
 
         if (existingChatRoom.isPresent()) {
-            return existingChatRoom.get();
+            ChatRoom chatRoom = existingChatRoom.get();
+            membershipCache.put(chatRoom.getId(), chatRoom.getUser1().getId(), chatRoom.getUser2().getId());
+            return chatRoom;
         } else {
             // Create a new chat room
             return createChatRoom(u1, u2, studyMatch);
         }
     }
 
-    private boolean isParticipant(ChatRoom chatRoom, Long userId) {
-        if (userId == null) {
-            return false;
+    // Match-time room creation by IDs only: no user or match entities are loaded. The new room's ID is not
+    // returned by the upsert, so its membership entry is loaded on first use instead of being cached here.
+    @Transactional
+    public void ensureChatRoom(Long matchId, Long user1Id, Long user2Id) {
+        chatRoomRepository.insertIfAbsent(user1Id, user2Id, matchId, LocalDateTime.now());
+    }
+
+    // Messages are returned in ascending ID order, so the last one is the furthest the user has now read
+    private List<ChatMessageResponse> markRead(Long chatRoomId, Long userId, List<ChatMessageResponse> messages) {
+        if (!messages.isEmpty()) {
+            readCursorRepository.advance(chatRoomId, userId, messages.get(messages.size() - 1).getId());
+        }
+        return messages;
+    }
+
+    // Rejected up front, so a blank message never reaches the insert (or a write-behind batch it would fail)
+    private static void requireContent(String content) {
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Message content cannot be empty");
+        }
+    }
+
+    // Participants of the room as {user1Id, user2Id}; fails when the room is unknown or the user is not one of them
+    private long[] authorize(Long chatRoomId, Long userId, String deniedMessage) {
+        long[] participants = membershipCache.participantsOf(chatRoomId);
+        if (participants.length != 2) {
+            throw new RuntimeException("ChatRoom not found");
+        }
+        if (!membershipCache.isParticipant(chatRoomId, userId)) {
+            throw new AccessDeniedException(deniedMessage);
         }
-        Long user1Id = chatRoom.getUser1() != null ? chatRoom.getUser1().getId() : null;
-        Long user2Id = chatRoom.getUser2() != null ? chatRoom.getUser2().getId() : null;
-        return userId.equals(user1Id) || userId.equals(user2Id);
+        return participants;
     }
 } 
@@ -1,17 +1,24 @@
 package com.example.biblov1.service;
 
+import com.example.biblov1.exception.ForeignKeyViolations;
 import com.example.biblov1.model.Comment;
-import com.example.biblov1.model.Post;
-import com.example.biblov1.model.User;
 import com.example.biblov1.repository.CommentRepository;
 import com.example.biblov1.repository.PostRepository;
 import com.example.biblov1.repository.UserRepository;
 import com.example.biblov1.payload.response.CommentResponse;
+import com.example.biblov1.payload.response.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -22,6 +29,12 @@ public class CommentService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
 
+    @Value("${app.feed.comment-page-size:50}")
+    private int threadPageSize;
+
+    @Value("${app.feed.comment-max-page-size:200}")
+    private int threadMaxPageSize;
+
     @Autowired
     public CommentService(CommentRepository commentRepository, PostRepository postRepository, UserRepository userRepository) {
         this.commentRepository = commentRepository;
@@ -29,39 +42,81 @@ public class CommentService {
         this.userRepository = userRepository;
     }
 
+    // Post and author are set as references; the foreign keys check they exist when the comment is inserted
     @Transactional
     public Comment createComment(Long postId, Long authorId, String content) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        User author = userRepository.findById(authorId)
-                .orElseThrow(() -> new RuntimeException("Author user not found"));
-
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Comment content cannot be empty");
+        }
         Comment comment = new Comment();
-        comment.setPost(post);
-        comment.setAuthor(author);
+        comment.setPost(postRepository.getReferenceById(postId));
+        comment.setAuthor(userRepository.getReferenceById(authorId));
         comment.setContent(content);
-        return commentRepository.save(comment);
+        Comment saved;
+        try {
+            saved = commentRepository.save(comment);
+        } catch (DataIntegrityViolationException e) {
+            if (!ForeignKeyViolations.isForeignKeyViolation(e)) {
+                throw e;
+            }
+            // The author is the authenticated caller, so a missing row is the post
+            throw new RuntimeException("Post not found", e);
+        }
+        postRepository.adjustCommentCount(postId, 1);
+        return saved;
     }
 
     @Transactional(readOnly = true)
-    public Optional<Comment> getCommentById(Long commentId) {
-        return commentRepository.findById(commentId);
+    public Optional<CommentResponse> getCommentById(Long commentId) {
+        return commentRepository.findResponseById(commentId);
     }
 
     @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByPost(Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        return commentRepository.findByPostOrderByCreatedAtAsc(post).stream()
-                .map(comment -> new CommentResponse(
-                    comment.getId(),
-                    comment.getContent(),
-                    comment.getAuthor().getName(),
-                    comment.getPost().getId(),
-                    comment.getCreatedAt(),
-                    comment.getUpdatedAt()
-                ))
-                .collect(Collectors.toList());
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+        return commentRepository.findResponsesByPostIdIn(List.of(postId));
+    }
+
+    // Comments for many posts at once, grouped by post ID; posts without comments are absent
+    @Transactional(readOnly = true)
+    public Map<Long, List<CommentResponse>> getCommentsByPostIds(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findResponsesByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(CommentResponse::getPostId));
+    }
+
+    // Newest `limit` comments per post (in posting order), for feed previews
+    @Transactional(readOnly = true)
+    public Map<Long, List<CommentResponse>> getCommentPreviewsByPostIds(Collection<Long> postIds, int limit) {
+        if (postIds.isEmpty() || limit <= 0) {
+            return Map.of();
+        }
+        return commentRepository.findLatestByPostIdIn(postIds, limit).stream()
+                .map(row -> new CommentResponse(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                        ((Number) row[3]).longValue(), toLocalDateTime(row[4]), toLocalDateTime(row[5])))
+                .collect(Collectors.groupingBy(CommentResponse::getPostId));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getCommentThreadPage(Long postId, String cursor, Integer limit) {
+        int pageSize = limit == null ? threadPageSize : Math.max(1, Math.min(limit, threadMaxPageSize));
+        long afterId = cursor == null || cursor.isBlank() ? 0L : CursorCodec.decodeLong(cursor);
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<CommentResponse> comments = commentRepository.findThreadPage(postId, afterId, PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(comments.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(comments, nextCursor);
     }
 
     @Transactional
@@ -74,6 +129,16 @@ public class CommentService {
 
     @Transactional
     public void deleteComment(Long commentId) {
-        commentRepository.deleteById(commentId);
+        // Only the delete that actually removed the row decrements the counter
+        commentRepository.findPostIdById(commentId).ifPresent(postId -> {
+            if (commentRepository.deleteCommentById(commentId) == 1) {
+                postRepository.adjustCommentCount(postId, -1);
+            }
+        });
+    }
+
+    // Native rows carry JDBC timestamps
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value == null ? null : ((Timestamp) value).toLocalDateTime();
     }
-} 
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.example.biblov1.service;
 
+import com.example.biblov1.exception.ForeignKeyViolations;
 import com.example.biblov1.model.Community;
 import com.example.biblov1.model.CommunityMember;
 import com.example.biblov1.model.User;
@@ -7,12 +8,12 @@ import com.example.biblov1.repository.CommunityMemberRepository;
 import com.example.biblov1.repository.CommunityRepository;
 import com.example.biblov1.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CommunityService {
@@ -55,31 +56,30 @@ public class CommunityService {
         return communityRepository.findById(communityId);
     }
 
+    // Membership rows are written and checked by ID; the community_id foreign key rejects unknown communities
     @Transactional
     public CommunityMember joinCommunity(Long communityId, Long userId) {
-        Community community = communityRepository.findById(communityId)
-                .orElseThrow(() -> new RuntimeException("Community not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (communityMemberRepository.findByCommunityAndUser(community, user).isPresent()) {
+        if (communityMemberRepository.existsByCommunityIdAndUserId(communityId, userId)) {
             throw new IllegalStateException("User is already a member of this community.");
         }
 
         CommunityMember communityMember = new CommunityMember();
-        communityMember.setCommunity(community);
-        communityMember.setUser(user);
-        return communityMemberRepository.save(communityMember);
+        communityMember.setCommunity(communityRepository.getReferenceById(communityId));
+        communityMember.setUser(userRepository.getReferenceById(userId));
+        try {
+            return communityMemberRepository.save(communityMember);
+        } catch (DataIntegrityViolationException e) {
+            if (!ForeignKeyViolations.isForeignKeyViolation(e)) {
+                throw e;
+            }
+            // The user is the authenticated caller (or the owner just saved), so a missing row is the community
+            throw new RuntimeException("Community not found", e);
+        }
     }
 
     @Transactional
     public void leaveCommunity(Long communityId, Long userId) {
-        Community community = communityRepository.findById(communityId)
-                .orElseThrow(() -> new RuntimeException("Community not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        CommunityMember member = communityMemberRepository.findByCommunityAndUser(community, user)
+        CommunityMember member = communityMemberRepository.findByCommunityIdAndUserId(communityId, userId)
                 .orElseThrow(() -> new RuntimeException("User is not a member of this community."));
 
         communityMemberRepository.delete(member);
@@ -87,27 +87,23 @@ public class CommunityService {
 
     @Transactional(readOnly = true)
     public List<Community> getCommunitiesByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return communityMemberRepository.findByUser(user).stream()
-                .map(CommunityMember::getCommunity)
-                .collect(Collectors.toList());
+        return communityMemberRepository.findCommunitiesByUserId(userId);
     }
 
     @Transactional(readOnly = true)
     public long getCommunityMemberCount(Long communityId) {
-        Community community = communityRepository.findById(communityId)
-                .orElseThrow(() -> new RuntimeException("Community not found"));
-        return communityMemberRepository.countByCommunity(community);
+        if (!communityRepository.existsById(communityId)) {
+            throw new RuntimeException("Community not found");
+        }
+        return communityMemberRepository.countByCommunityId(communityId);
     }
     
     @Transactional(readOnly = true)
     public boolean isUserMemberOfCommunity(Long userId, Long communityId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Community community = communityRepository.findById(communityId)
-                .orElseThrow(() -> new RuntimeException("Community not found"));
-        return communityMemberRepository.findByCommunityAndUser(community, user).isPresent();
+        if (!communityRepository.existsById(communityId)) {
+            throw new RuntimeException("Community not found");
+        }
+        return communityMemberRepository.existsByCommunityIdAndUserId(communityId, userId);
     }
 
 } 
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.biblov1.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Scores candidate profiles against a viewer using Jaccard similarity over the hashed term bitsets.
+// The per-pair kernel is branch-light popcount arithmetic and allocates nothing.
+@Component
+public class CompatibilityScoringEngine {
+    static final float INTEREST_WEIGHT = 3f;
+    static final float LANGUAGE_WEIGHT = 2f;
+    static final float LANGUAGE_LEVEL_WEIGHT = 1f;
+    static final float SKILL_WEIGHT = 2f;
+    static final float LOOKING_FOR_WEIGHT = 2f;
+    static final float UNIVERSITY_WEIGHT = 1f;
+    static final float MAJOR_WEIGHT = 1f;
+
+    public float score(ProfileFeatures viewer, ProfileFeatures candidate) {
+        float score = INTEREST_WEIGHT * jaccard(viewer.interests, candidate.interests)
+                + LANGUAGE_WEIGHT * jaccard(viewer.languages, candidate.languages)
+                + LANGUAGE_LEVEL_WEIGHT * jaccard(viewer.languageLevels, candidate.languageLevels)
+                + SKILL_WEIGHT * jaccard(viewer.skills, candidate.skills);
+
+        int lookingForUnion = viewer.lookingFor | candidate.lookingFor;
+        if (lookingForUnion != 0) {
+            score += LOOKING_FOR_WEIGHT * Integer.bitCount(viewer.lookingFor & candidate.lookingFor) / Integer.bitCount(lookingForUnion);
+        }
+        if (viewer.university != 0 && viewer.university == candidate.university) {
+            score += UNIVERSITY_WEIGHT;
+        }
+        if (viewer.major != 0 && viewer.major == candidate.major) {
+            score += MAJOR_WEIGHT;
+        }
+        return score;
+    }
+
+    // Returns candidate indexes ordered by descending score; ties keep their input order
+    public int[] rank(ProfileFeatures viewer, List<ProfileFeatures> candidates) {
+        int n = candidates.size();
+        // Scores are non-negative, so their float bits sort like the values. Packing the inverted index into
+        // the low half lets a single primitive sort order by score and break ties by position.
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            float score = score(viewer, candidates.get(i));
+            keys[i] = ((long) Float.floatToIntBits(score) << 32) | (~i & 0xffffffffL);
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = ~(int) keys[n - 1 - i];
+        }
+        return order;
+    }
+
+    static float jaccard(long[] a, long[] b) {
+        int intersection = 0;
+        int union = 0;
+        for (int i = 0; i < ProfileFeatures.WORDS; i++) {
+            intersection += Long.bitCount(a[i] & b[i]);
+            union += Long.bitCount(a[i] | b[i]);
+        }
+        return union == 0 ? 0f : (float) intersection / union;
+    }
+}
@@ -47,4 +47,13 @@ public class FileStorageService {
             throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
         }
     }
+
+    // Best-effort removal of a file stored by storeFile, e.g. when the row referring to it was never written
+    public void deleteFile(String fileUrl) {
+        try {
+            Files.deleteIfExists(this.fileStorageLocation.resolve(fileUrl.substring("/uploads/".length())));
+        } catch (IOException ignored) {
+            // An orphaned upload is harmless
+        }
+    }
 } 
\ No newline at end of file
@@ -1,12 +1,12 @@
 package com.example.biblov1.service;
 
+import com.example.biblov1.exception.ForeignKeyViolations;
 import com.example.biblov1.model.Like;
-import com.example.biblov1.model.Post;
-import com.example.biblov1.model.User;
 import com.example.biblov1.repository.LikeRepository;
 import com.example.biblov1.repository.PostRepository;
 import com.example.biblov1.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,48 +18,62 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
 
     @Autowired
-    public LikeService(LikeRepository likeRepository, PostRepository postRepository, UserRepository userRepository) {
+    public LikeService(LikeRepository likeRepository, PostRepository postRepository, UserRepository userRepository, LikeWriteBuffer likeWriteBuffer) {
         this.likeRepository = likeRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
+        this.likeWriteBuffer = likeWriteBuffer;
     }
 
     @Transactional
     public boolean toggleLike(Long postId, Long userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (likeWriteBuffer.isEnabled()) {
+            // Buffered path: one existence check here, the like row itself is written by the next batched flush
+            if (!postRepository.existsById(postId)) {
+                throw new RuntimeException("Post not found");
+            }
+            return likeWriteBuffer.toggle(postId, userId);
+        }
 
-        Optional<Like> existingLike = likeRepository.findByPostAndUser(post, user);
+        Optional<Like> existingLike = likeRepository.findByPostIdAndUserId(postId, userId);
 
         if (existingLike.isPresent()) {
             likeRepository.delete(existingLike.get());
+            postRepository.adjustLikeCount(postId, -1);
             return false; // Unliked
         } else {
+            // References only; the post_id foreign key rejects unknown posts on insert
             Like like = new Like();
-            like.setPost(post);
-            like.setUser(user);
-            likeRepository.save(like);
+            like.setPost(postRepository.getReferenceById(postId));
+            like.setUser(userRepository.getReferenceById(userId));
+            try {
+                likeRepository.save(like);
+            } catch (DataIntegrityViolationException e) {
+                if (!ForeignKeyViolations.isForeignKeyViolation(e)) {
+                    throw e;
+                }
+                throw new RuntimeException("Post not found", e);
+            }
+            postRepository.adjustLikeCount(postId, 1);
             return true; // Liked
         }
     }
 
     @Transactional(readOnly = true)
     public long getLikesCount(Long postId) {
-        Post post = postRepository.findById(postId)
+        long persisted = postRepository.findLikeCountById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
-        return likeRepository.countByPost(post);
+        return persisted + likeWriteBuffer.pendingLikeDelta(postId);
     }
 
     @Transactional(readOnly = true)
     public boolean isPostLikedByUser(Long postId, Long userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return likeRepository.findByPostAndUser(post, user).isPresent();
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+        return likeWriteBuffer.isLiked(postId, userId);
     }
 } 
\ No newline at end of file
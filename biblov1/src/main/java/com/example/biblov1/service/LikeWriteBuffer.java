@@ -0,0 +1,300 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.repository.LikeBatchRepository;
+import com.example.biblov1.repository.LikeRepository;
+import com.example.biblov1.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Coalesces like toggles in memory and writes only the net change per (post, user) in periodic JDBC batches.
+// Entries live in lock-striped maps: "pending" collects new toggles, "flushing" holds the batch currently being
+// written. Reads overlay both on the persisted state, so callers always see their own latest toggle.
+@Component
+public class LikeWriteBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+    private static final int STRIPES = 64;
+
+    private final LikeRepository likeRepository;
+    private final LikeBatchRepository likeBatchRepository;
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor flushExecutor;
+    private final TaskScheduler flushScheduler;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final int flushThreshold;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ConcurrentHashMap<Long, Long> pendingDeltas = new ConcurrentHashMap<>(); // postId -> unflushed like delta
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LikeWriteBuffer(LikeRepository likeRepository,
+                           LikeBatchRepository likeBatchRepository,
+                           PostRepository postRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("likeFlushExecutor") TaskExecutor flushExecutor,
+                           @Qualifier("likeFlushScheduler") TaskScheduler flushScheduler,
+                           @Value("${app.likes.buffer.enabled:false}") boolean enabled,
+                           @Value("${app.likes.buffer.flush-interval-ms:1000}") long flushIntervalMs,
+                           @Value("${app.likes.buffer.flush-threshold:5000}") int flushThreshold) {
+        this.likeRepository = likeRepository;
+        this.likeBatchRepository = likeBatchRepository;
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushExecutor = flushExecutor;
+        this.flushScheduler = flushScheduler;
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushThreshold = flushThreshold;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Flips the user's like on the post and returns the new state; the database is written on the next flush
+    public boolean toggle(Long postId, Long userId) {
+        LikeKey key = new LikeKey(postId, userId);
+        Stripe stripe = stripeFor(key);
+        while (true) {
+            Boolean known;
+            long generation;
+            synchronized (stripe) {
+                known = stripe.effectiveState(key);
+                generation = stripe.generation;
+            }
+            // Only keys with nothing buffered hit the database, and never while holding the stripe lock
+            boolean persisted = known == null && likeRepository.existsByPostIdAndUserId(postId, userId);
+
+            boolean desired;
+            synchronized (stripe) {
+                Boolean current = stripe.effectiveState(key);
+                if (current == null && stripe.generation != generation) {
+                    continue; // A flush completed meanwhile and may have written this key; read it again
+                }
+                boolean liked = current != null ? current : persisted;
+                desired = !liked;
+                stripe.record(key, desired, persisted);
+                pendingDeltas.merge(postId, desired ? 1L : -1L, LikeWriteBuffer::sumOrRemove);
+            }
+            if (pendingCount.get() >= flushThreshold) {
+                flushExecutor.execute(this::flush);
+            }
+            return desired;
+        }
+    }
+
+    public boolean isLiked(Long postId, Long userId) {
+        LikeKey key = new LikeKey(postId, userId);
+        Stripe stripe = stripeFor(key);
+        Boolean known;
+        synchronized (stripe) {
+            known = stripe.effectiveState(key);
+        }
+        return known != null ? known : likeRepository.existsByPostIdAndUserId(postId, userId);
+    }
+
+    // Applies buffered toggles of one user to the persisted liked set of a page of posts
+    public Set<Long> overlayLiked(Long userId, Collection<Long> postIds, Set<Long> persistedLiked) {
+        Set<Long> liked = new HashSet<>(persistedLiked);
+        for (Long postId : postIds) {
+            LikeKey key = new LikeKey(postId, userId);
+            Stripe stripe = stripeFor(key);
+            Boolean known;
+            synchronized (stripe) {
+                known = stripe.effectiveState(key);
+            }
+            if (known != null) {
+                if (known) {
+                    liked.add(postId);
+                } else {
+                    liked.remove(postId);
+                }
+            }
+        }
+        return liked;
+    }
+
+    // Net likes buffered for the post that are not yet reflected in posts.like_count
+    public long pendingLikeDelta(Long postId) {
+        return pendingDeltas.getOrDefault(postId, 0L);
+    }
+
+    // Periodic flushes run on their own scheduler, so a long reconcile or other scheduled job never delays them
+    @PostConstruct
+    void scheduleFlushes() {
+        if (enabled) {
+            flushScheduler.scheduleWithFixedDelay(this::flush, Duration.ofMillis(flushIntervalMs));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Writes all buffered net changes in one transaction. On failure the batch is merged back and retried later.
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return; // Another flush is running and will pick up whatever is pending when it is done
+        }
+        try {
+            Map<LikeKey, Pending> batch = new HashMap<>();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    if (stripe.pending.isEmpty()) {
+                        continue;
+                    }
+                    stripe.flushing = stripe.pending;
+                    stripe.pending = new HashMap<>();
+                    pendingCount.addAndGet(-stripe.flushing.size());
+                    batch.putAll(stripe.flushing);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<long[]> inserts = new ArrayList<>();
+            List<long[]> deletes = new ArrayList<>();
+            Set<Long> postIds = new HashSet<>();
+            batch.forEach((key, entry) -> {
+                (entry.desired ? inserts : deletes).add(new long[]{key.postId(), key.userId()});
+                postIds.add(key.postId());
+            });
+
+            boolean committed = false;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Likes on posts deleted since the toggle are dropped instead of failing the whole batch
+                    Set<Long> existing = new HashSet<>(postRepository.findExistingIds(postIds));
+                    inserts.removeIf(like -> !existing.contains(like[0]));
+                    likeBatchRepository.insertLikes(inserts, LocalDateTime.now());
+                    likeBatchRepository.deleteLikes(deletes);
+                    // Recount rather than add deltas so rows that were already present (or already gone) cannot skew counters
+                    postRepository.recountLikeCounts(postIds);
+                });
+                committed = true;
+            } catch (RuntimeException e) {
+                logger.warn("Like buffer flush of {} changes failed, will retry: {}", batch.size(), e.getMessage());
+            }
+
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    if (stripe.flushing.isEmpty()) {
+                        continue;
+                    }
+                    if (committed) {
+                        stripe.flushing.forEach((key, entry) ->
+                                pendingDeltas.merge(key.postId(), entry.desired ? -1L : 1L, LikeWriteBuffer::sumOrRemove));
+                    } else {
+                        pendingCount.addAndGet(stripe.restoreFlushing());
+                    }
+                    stripe.flushing = new HashMap<>();
+                    stripe.generation++;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(LikeKey key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    private static Long sumOrRemove(Long a, Long b) {
+        long sum = a + b;
+        return sum == 0 ? null : sum;
+    }
+
+    private record LikeKey(long postId, long userId) {
+    }
+
+    // desired is the state to write; base is the state already persisted when the entry was created
+    private static final class Pending {
+        boolean desired;
+        boolean base;
+
+        Pending(boolean desired, boolean base) {
+            this.desired = desired;
+            this.base = base;
+        }
+    }
+
+    // Guarded by its own monitor
+    private final class Stripe {
+        Map<LikeKey, Pending> pending = new HashMap<>();
+        Map<LikeKey, Pending> flushing = new HashMap<>();
+        long generation;
+
+        Boolean effectiveState(LikeKey key) {
+            Pending entry = pending.get(key);
+            if (entry == null) {
+                entry = flushing.get(key);
+            }
+            return entry == null ? null : entry.desired;
+        }
+
+        void record(LikeKey key, boolean desired, boolean persisted) {
+            Pending entry = pending.get(key);
+            if (entry == null) {
+                Pending inFlight = flushing.get(key);
+                entry = new Pending(desired, inFlight != null ? inFlight.desired : persisted);
+                pending.put(key, entry);
+                pendingCount.incrementAndGet();
+            } else {
+                entry.desired = desired;
+            }
+            if (entry.desired == entry.base) {
+                pending.remove(key); // Toggled back: nothing to write
+                pendingCount.decrementAndGet();
+            }
+        }
+
+        // Puts a failed batch back under newer toggles; returns the change in pending entries
+        int restoreFlushing() {
+            int added = 0;
+            for (Map.Entry<LikeKey, Pending> failed : flushing.entrySet()) {
+                Pending newer = pending.get(failed.getKey());
+                if (newer == null) {
+                    pending.put(failed.getKey(), failed.getValue());
+                    added++;
+                } else {
+                    newer.base = failed.getValue().base;
+                    if (newer.desired == newer.base) {
+                        pending.remove(failed.getKey());
+                        added--;
+                    }
+                }
+            }
+            return added;
+        }
+    }
+}
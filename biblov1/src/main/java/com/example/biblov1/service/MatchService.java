@@ -1,22 +1,32 @@
 package com.example.biblov1.service;
 
 import com.example.biblov1.model.StudyMatch;
-import com.example.biblov1.model.User;
-import com.example.biblov1.model.UserSwipe;
 import com.example.biblov1.model.UserSwipe.SwipeType;
 import com.example.biblov1.model.StudyMatch.MatchStatus;
+import com.example.biblov1.payload.request.SwipeRequest;
+import com.example.biblov1.payload.response.MatchSummary;
+import com.example.biblov1.payload.response.SwipeResult;
 import com.example.biblov1.repository.StudyMatchRepository;
+import com.example.biblov1.repository.SwipeBatchRepository;
 import com.example.biblov1.repository.UserSwipeRepository;
 import com.example.biblov1.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MatchService {
@@ -24,108 +34,137 @@ public class MatchService {
     private final UserSwipeRepository userSwipeRepository;
     private final UserRepository userRepository;
     private final ChatService chatService;
+    private final SwipedUserIndex swipedUserIndex;
+    private final CandidateQueueService candidateQueueService;
+    private final SwipeBatchRepository swipeBatchRepository;
     private static final Logger logger = LoggerFactory.getLogger(MatchService.class);
 
     @Autowired
-    public MatchService(StudyMatchRepository studyMatchRepository, UserSwipeRepository userSwipeRepository, UserRepository userRepository, ChatService chatService) {
+    public MatchService(StudyMatchRepository studyMatchRepository, UserSwipeRepository userSwipeRepository, UserRepository userRepository, ChatService chatService, SwipedUserIndex swipedUserIndex, CandidateQueueService candidateQueueService, SwipeBatchRepository swipeBatchRepository) {
         this.studyMatchRepository = studyMatchRepository;
         this.userSwipeRepository = userSwipeRepository;
         this.userRepository = userRepository;
         this.chatService = chatService;
+        this.swipedUserIndex = swipedUserIndex;
+        this.candidateQueueService = candidateQueueService;
+        this.swipeBatchRepository = swipeBatchRepository;
     }
 
-    // Method to handle a user's swipe action
+    @Value("${app.matching.swipe-batch.max-size:500}")
+    private int maxSwipeBatchSize;
+
+    // Method to handle a user's swipe action.
+    // Works on IDs only: upsert the swipe, check for a reciprocal LIKE, then upsert the match and its chat room.
     @Transactional
     public boolean processSwipe(Long swiperId, Long swipedId, SwipeType swipeType) {
-        logger.info("Processing swipe: swiperId={}, swipedId={}, swipeType={}", swiperId, swipedId, swipeType);
-
-        User swiper = userRepository.findById(swiperId)
-                .orElseThrow(() -> new RuntimeException("Swiper user not found"));
-        User swiped = userRepository.findById(swipedId)
-                .orElseThrow(() -> new RuntimeException("Swiped user not found"));
-
-        // Check if a swipe already exists from swiper to swiped
-        Optional<UserSwipe> existingSwipe = userSwipeRepository.findBySwiperAndSwiped(swiper, swiped);
-
-        UserSwipe userSwipe;
-        if (existingSwipe.isPresent()) {
-            logger.info("Updating existing swipe from {} to {}", swiperId, swipedId);
-            userSwipe = existingSwipe.get();
-            userSwipe.setSwipeType(swipeType);
-            userSwipe.setCreatedAt(LocalDateTime.now()); // Update timestamp
-        } else {
-            logger.info("Creating new swipe from {} to {}", swiperId, swipedId);
-            userSwipe = new UserSwipe();
-            userSwipe.setSwiper(swiper);
-            userSwipe.setSwiped(swiped);
-            userSwipe.setSwipeType(swipeType);
-        }
+        logger.debug("Processing swipe: swiperId={}, swipedId={}, swipeType={}", swiperId, swipedId, swipeType);
 
         try {
-            logger.info("Attempting to save UserSwipe: swiperId={}, swipedId={}, swipeType={}", 
-                        userSwipe.getSwiper().getId(), userSwipe.getSwiped().getId(), userSwipe.getSwipeType());
-            userSwipeRepository.save(userSwipe);
-            logger.info("UserSwipe saved successfully.");
-        } catch (Exception e) {
-            logger.error("Error saving UserSwipe: {}", e.getMessage(), e);
-            // Depending on the error, you might want to re-throw or handle differently
-            throw new RuntimeException("Failed to save user swipe", e);
+            userSwipeRepository.upsertSwipe(swiperId, swipedId, swipeType.name(), LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // The only foreign keys are the two user IDs and the swiper is the authenticated caller
+            throw new RuntimeException("Swiped user not found", e);
         }
+        swipedUserIndex.recordSwipe(swiperId, swipedId);
+        candidateQueueService.consume(swiperId, swipedId);
 
-        boolean isMatch = false;
         // Check for a match only if the current swipe is a LIKE
-        if (swipeType == SwipeType.LIKE) {
-            // Check if the swiped user has also LIKED the swiper user
-            Optional<UserSwipe> counterSwipe = userSwipeRepository.findBySwiperAndSwiped(swiped, swiper);
-
-            if (counterSwipe.isPresent() && counterSwipe.get().getSwipeType() == SwipeType.LIKE) {
-                // It's a match!
-                StudyMatch match = createOrUpdateMatch(swiper, swiped);
-                // Create or find chat room for the new match
-                if (match != null) {
-                    chatService.findOrCreateChatRoom(swiper.getId(), swiped.getId(), match);
-                }
-                isMatch = true;
-            }
+        if (swipeType != SwipeType.LIKE || !userSwipeRepository.existsSwipe(swipedId, swiperId, SwipeType.LIKE)) {
+            return false;
         }
 
-        return isMatch;
+        // It's a match! Ensure user1Id < user2Id to avoid duplicate match entries for the same pair
+        Long user1Id = Math.min(swiperId, swipedId);
+        Long user2Id = Math.max(swiperId, swipedId);
+        studyMatchRepository.upsertMatched(user1Id, user2Id, LocalDateTime.now());
+        Long matchId = studyMatchRepository.findIdByUserIds(user1Id, user2Id)
+                .orElseThrow(() -> new RuntimeException("StudyMatch not found after upsert"));
+        chatService.ensureChatRoom(matchId, swiperId, swipedId);
+        return true;
     }
 
-    // Helper method to create or update a StudyMatch
-    private StudyMatch createOrUpdateMatch(User user1, User user2) {
-        // Ensure user1.id < user2.id to avoid duplicate match entries for the same pair
-        User u1 = user1.getId() < user2.getId() ? user1 : user2;
-        User u2 = user1.getId() < user2.getId() ? user2 : user1;
-
-        Optional<StudyMatch> existingMatch = studyMatchRepository.findByUser1AndUser2(u1, u2);
-
-        StudyMatch match;
-        if (existingMatch.isPresent()) {
-            match = existingMatch.get();
-            if (match.getStatus() != MatchStatus.MATCHED) {
-                match.setStatus(MatchStatus.MATCHED);
-                match.setUpdatedAt(LocalDateTime.now());
-                studyMatchRepository.save(match);
+    // Replays a batch of queued swipes in one transaction with a fixed number of statements:
+    // one existence check, one batched swipe upsert, one reciprocity query and, on matches, batched match/room upserts.
+    @Transactional
+    public List<SwipeResult> processSwipes(Long swiperId, List<SwipeRequest> swipes) {
+        if (swipes == null || swipes.isEmpty()) {
+            return List.of();
+        }
+        if (swipes.size() > maxSwipeBatchSize) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxSwipeBatchSize + " swipes");
+        }
+        logger.debug("Processing swipe batch: swiperId={}, size={}", swiperId, swipes.size());
+
+        // The stored swipe is the last one per user, as it would be when replayed one by one
+        Map<Long, SwipeType> latest = new LinkedHashMap<>();
+        for (SwipeRequest swipe : swipes) {
+            if (swipe.getSwipedUserId() != null && swipe.getSwipeType() != null && !swipe.getSwipedUserId().equals(swiperId)) {
+                latest.put(swipe.getSwipedUserId(), swipe.getSwipeType());
+            }
+        }
+        Set<Long> existing = latest.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(latest.keySet()));
+
+        Map<Long, String> applied = new LinkedHashMap<>();
+        latest.forEach((swipedId, swipeType) -> {
+            if (existing.contains(swipedId)) {
+                applied.put(swipedId, swipeType.name());
+            }
+        });
+        // Any LIKE in the batch can produce a match, even one overridden later: a replay would have matched on it.
+        // Reciprocity only depends on the other users' swipes, which this batch does not change.
+        Set<Long> liked = new LinkedHashSet<>();
+        for (SwipeRequest swipe : swipes) {
+            if (swipe.getSwipeType() == SwipeType.LIKE && existing.contains(swipe.getSwipedUserId())) {
+                liked.add(swipe.getSwipedUserId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> matched = new HashSet<>();
+        if (!applied.isEmpty()) {
+            swipeBatchRepository.upsertSwipes(swiperId, applied, now);
+            for (Long swipedId : applied.keySet()) {
+                swipedUserIndex.recordSwipe(swiperId, swipedId);
+                candidateQueueService.consume(swiperId, swipedId);
+            }
+        }
+        if (!liked.isEmpty()) {
+            matched.addAll(userSwipeRepository.findSwiperIdsBySwipedIdAndSwipeType(swiperId, liked, SwipeType.LIKE));
+        }
+        if (!matched.isEmpty()) {
+            swipeBatchRepository.upsertMatches(swiperId, matched, now);
+            Map<Long, Long> matchIds = new HashMap<>();
+            for (Object[] row : studyMatchRepository.findMatchIdsWith(swiperId, matched)) {
+                Long otherUserId = swiperId.equals(row[1]) ? (Long) row[2] : (Long) row[1];
+                matchIds.put(otherUserId, (Long) row[0]);
+            }
+            swipeBatchRepository.insertChatRoomsIfAbsent(swiperId, matchIds, now);
+        }
+
+        // Only the first LIKE on a matched user reports the match; DISLIKEs and repeats report none
+        Set<Long> reported = new HashSet<>();
+        List<SwipeResult> results = new ArrayList<>(swipes.size());
+        for (SwipeRequest swipe : swipes) {
+            Long swipedId = swipe.getSwipedUserId();
+            String error = null;
+            if (swipedId == null || swipe.getSwipeType() == null) {
+                error = "swipedUserId and swipeType are required";
+            } else if (swipedId.equals(swiperId)) {
+                error = "Cannot swipe on yourself";
+            } else if (!existing.contains(swipedId)) {
+                error = "Swiped user not found";
             }
-        } else {
-            match = new StudyMatch();
-            match.setUser1(u1);
-            match.setUser2(u2);
-            match.setStatus(MatchStatus.MATCHED);
-            match.setCreatedAt(LocalDateTime.now());
-            match.setUpdatedAt(LocalDateTime.now());
-            studyMatchRepository.save(match);
+            boolean match = error == null && swipe.getSwipeType() == SwipeType.LIKE
+                    && matched.contains(swipedId) && reported.add(swipedId);
+            results.add(new SwipeResult(swipedId, swipe.getSwipeType(), match, error));
         }
-        return match;
+        return results;
     }
 
-    public List<StudyMatch> getUserMatches(User user) {
-        // Find matches where the user is either user1 or user2 and the status is MATCHED
-        List<StudyMatch> matches1 = studyMatchRepository.findByUser1AndStatus(user, MatchStatus.MATCHED);
-        List<StudyMatch> matches2 = studyMatchRepository.findByUser2AndStatus(user, MatchStatus.MATCHED);
-        matches1.addAll(matches2);
-        return matches1;
+    // Matches where the user is either user1 or user2 and the status is MATCHED, newest first
+    @Transactional(readOnly = true)
+    public List<MatchSummary> getUserMatches(Long userId) {
+        return studyMatchRepository.findSummariesByUserId(userId, MatchStatus.MATCHED);
     }
 
     public StudyMatch getStudyMatchById(Long matchId) {
@@ -0,0 +1,70 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Periodically repairs drift between the posts.like_count/comment_count counters and the likes/comments tables.
+// Works through the posts table in id windows, one short transaction per window, so it never holds long locks.
+// A first pass runs once the application is ready, so counters added by a schema update are backfilled right
+// away instead of reading 0 until the first scheduled run.
+@Component
+public class PostCounterReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterReconciler.class);
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean reconcileOnStartup;
+
+    public PostCounterReconciler(PostRepository postRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.counters.reconcile-batch-size:1000}") int batchSize,
+                                 @Value("${app.counters.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAfterStartup() {
+        if (reconcileOnStartup) {
+            scheduledReconcile();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.counters.reconcile-interval-ms:600000}",
+               fixedDelayString = "${app.counters.reconcile-interval-ms:600000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Post counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    // Returns the number of post rows whose counters were corrected
+    public int reconcile() {
+        long maxId = postRepository.findMaxId();
+        int repaired = 0;
+        for (long start = 1; start <= maxId; start += batchSize) {
+            long fromId = start;
+            long toId = start + batchSize - 1;
+            Integer fixed = transactionTemplate.execute(status ->
+                    postRepository.reconcileLikeCounts(fromId, toId) + postRepository.reconcileCommentCounts(fromId, toId));
+            repaired += fixed == null ? 0 : fixed;
+        }
+        if (repaired > 0) {
+            logger.info("Post counter reconciliation repaired {} counters", repaired);
+        }
+        return repaired;
+    }
+}
@@ -1,22 +1,31 @@
 package com.example.biblov1.service;
 
-import com.example.biblov1.model.Community;
+import com.example.biblov1.exception.ForeignKeyViolations;
 import com.example.biblov1.model.Post;
-import com.example.biblov1.model.User;
 import com.example.biblov1.repository.CommunityRepository;
 import com.example.biblov1.repository.PostRepository;
 import com.example.biblov1.repository.UserRepository;
 import com.example.biblov1.repository.LikeRepository;
 import com.example.biblov1.payload.response.PostResponse;
 import com.example.biblov1.payload.response.CommentResponse;
+import com.example.biblov1.payload.response.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -30,52 +39,104 @@ public class PostService {
     private final LikeRepository likeRepository;
     private final CommentService commentService;
     private final FileStorageService fileStorageService;
+    private final LikeWriteBuffer likeWriteBuffer;
+
+    private static final int FULL_THREAD = -1;
+
+    @Value("${app.feed.page-size:20}")
+    private int feedPageSize;
+
+    @Value("${app.feed.max-page-size:50}")
+    private int feedMaxPageSize;
+
+    @Value("${app.feed.comment-preview-size:3}")
+    private int commentPreviewSize;
 
     @Autowired
-    public PostService(PostRepository postRepository, CommunityRepository communityRepository, UserRepository userRepository, LikeRepository likeRepository, CommentService commentService, FileStorageService fileStorageService) {
+    public PostService(PostRepository postRepository, CommunityRepository communityRepository, UserRepository userRepository, LikeRepository likeRepository, CommentService commentService, FileStorageService fileStorageService, LikeWriteBuffer likeWriteBuffer) {
         this.postRepository = postRepository;
         this.communityRepository = communityRepository;
         this.userRepository = userRepository;
         this.likeRepository = likeRepository;
         this.commentService = commentService;
         this.fileStorageService = fileStorageService;
+        this.likeWriteBuffer = likeWriteBuffer;
     }
 
+    // Community and author are set as references; the insert's foreign keys reject an unknown community
     @Transactional
     public Post createPost(Long communityId, Long authorId, String content, MultipartFile imageFile, Set<String> hashtags) {
-        Community community = communityRepository.findById(communityId)
-                .orElseThrow(() -> new RuntimeException("Community not found"));
-        User author = userRepository.findById(authorId)
-                .orElseThrow(() -> new RuntimeException("Author user not found"));
-
+        if (content == null || content.isBlank()) {
+            throw new IllegalArgumentException("Post content cannot be empty");
+        }
         String imageUrl = null;
         if (imageFile != null && !imageFile.isEmpty()) {
             imageUrl = fileStorageService.storeFile(imageFile);
         }
 
         Post post = new Post();
-        post.setCommunity(community);
-        post.setAuthor(author);
+        post.setCommunity(communityRepository.getReferenceById(communityId));
+        post.setAuthor(userRepository.getReferenceById(authorId));
         post.setContent(content);
         post.setImageUrl(imageUrl);
         post.setHashtags(hashtags);
-        return postRepository.save(post);
+        try {
+            return postRepository.save(post);
+        } catch (DataIntegrityViolationException e) {
+            if (imageUrl != null) {
+                fileStorageService.deleteFile(imageUrl);
+            }
+            if (!ForeignKeyViolations.isForeignKeyViolation(e)) {
+                throw e;
+            }
+            throw new RuntimeException("Community not found", e);
+        }
     }
 
     @Transactional(readOnly = true)
     public PostResponse getPostById(Long postId, Long currentUserId) {
-        Post post = postRepository.findById(postId)
+        PostRepository.FeedRow row = postRepository.findFeedRowById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
-        return convertToPostResponse(post, currentUserId);
+        return assemblePostResponses(List.of(row), currentUserId, FULL_THREAD).get(0);
     }
 
     @Transactional(readOnly = true)
     public List<PostResponse> getPostsByCommunity(Long communityId, Long currentUserId) {
-        Community community = communityRepository.findById(communityId)
-                .orElseThrow(() -> new RuntimeException("Community not found"));
-        return postRepository.findByCommunityOrderByCreatedAtDesc(community).stream()
-                .map(post -> convertToPostResponse(post, currentUserId))
-                .collect(Collectors.toList());
+        if (!communityRepository.existsById(communityId)) {
+            throw new RuntimeException("Community not found");
+        }
+        return assemblePostResponses(postRepository.findFeedRowsByCommunityId(communityId), currentUserId, FULL_THREAD);
+    }
+
+    // Keyset page of a community's posts, newest first; each post carries a short comment preview and its comment count
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getCommunityFeed(Long communityId, Long currentUserId, String cursor, Integer limit) {
+        int pageSize = limit == null ? feedPageSize : Math.max(1, Math.min(limit, feedMaxPageSize));
+        if (!communityRepository.existsById(communityId)) {
+            throw new RuntimeException("Community not found");
+        }
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<PostRepository.FeedRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postRepository.findFeedPage(communityId, page);
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                rows = postRepository.findFeedPageBefore(communityId, LocalDateTime.parse(position[0]), Long.parseLong(position[1]), page);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            PostRepository.FeedRow last = rows.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(assemblePostResponses(rows, currentUserId, commentPreviewSize), nextCursor);
     }
 
     @Transactional
@@ -93,30 +154,47 @@ public class PostService {
         postRepository.deleteById(postId);
     }
 
-    private PostResponse convertToPostResponse(Post post, Long currentUserId) {
-        long likesCount = likeRepository.countByPost(post);
-        boolean isLiked = false;
-        if (currentUserId != null) {
-            User currentUser = userRepository.findById(currentUserId).orElse(null);
-            if (currentUser != null) {
-                isLiked = likeRepository.findByPostAndUser(post, currentUser).isPresent();
-            }
+    // Builds responses for a page of posts with a fixed number of queries, independent of the page size:
+    // hashtags, the viewer's liked posts and comments are each fetched once for all posts and joined here;
+    // like and comment counts come from the counter columns on the post rows themselves.
+    // commentLimit bounds the embedded comments per post; FULL_THREAD embeds every comment.
+    private List<PostResponse> assemblePostResponses(List<PostRepository.FeedRow> rows, Long currentUserId, int commentLimit) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> postIds = rows.stream().map(PostRepository.FeedRow::getId).collect(Collectors.toList());
+
+        Map<Long, Set<String>> hashtagsByPost = new HashMap<>();
+        for (Object[] row : postRepository.findHashtagsByPostIdIn(postIds)) {
+            hashtagsByPost.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        Set<Long> likedPostIds = currentUserId == null
+                ? Set.of()
+                : likeWriteBuffer.overlayLiked(currentUserId, postIds, new HashSet<>(likeRepository.findLikedPostIds(currentUserId, postIds)));
+        Map<Long, List<CommentResponse>> commentsByPost = commentLimit == FULL_THREAD
+                ? commentService.getCommentsByPostIds(postIds)
+                : commentService.getCommentPreviewsByPostIds(postIds, commentLimit);
+
+        List<PostResponse> responses = new ArrayList<>(rows.size());
+        for (PostRepository.FeedRow row : rows) {
+            List<CommentResponse> comments = commentsByPost.getOrDefault(row.getId(), new ArrayList<>());
+            PostResponse response = new PostResponse(
+                    row.getId(),
+                    row.getContent(),
+                    row.getImageUrl(),
+                    row.getCreatedAt(),
+                    row.getUpdatedAt(),
+                    row.getAuthorName(),
+                    row.getAuthorId(),
+                    row.getCommunityId(),
+                    hashtagsByPost.getOrDefault(row.getId(), new HashSet<>()),
+                    row.getLikeCount() + likeWriteBuffer.pendingLikeDelta(row.getId()),
+                    likedPostIds.contains(row.getId()),
+                    comments
+            );
+            response.setCommentCount(row.getCommentCount());
+            responses.add(response);
         }
-        List<CommentResponse> comments = commentService.getCommentsByPost(post.getId());
-
-        return new PostResponse(
-                post.getId(),
-                post.getContent(),
-                post.getImageUrl(),
-                post.getCreatedAt(),
-                post.getUpdatedAt(),
-                post.getAuthor().getName(),
-                post.getAuthor().getId(),
-                post.getCommunity().getId(),
-                post.getHashtags(),
-                likesCount,
-                isLiked,
-                comments
-        );
+        return responses;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.model.UserProfile;
+import com.example.biblov1.repository.SkillRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Turns a UserProfile (plus the owner's skill names) into a ProfileFeatures vector
+@Component
+public class ProfileFeatureEncoder {
+    private final SkillRepository skillRepository;
+
+    public ProfileFeatureEncoder(SkillRepository skillRepository) {
+        this.skillRepository = skillRepository;
+    }
+
+    // Encodes a batch of profiles in input order, loading all of their skills with a single query
+    public List<ProfileFeatures> encodeAll(List<UserProfile> profiles) {
+        List<Long> userIds = new ArrayList<>(profiles.size());
+        for (UserProfile profile : profiles) {
+            if (profile.getUser() != null) {
+                userIds.add(profile.getUser().getId());
+            }
+        }
+        Map<Long, List<String>> skillsByUserId = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : skillRepository.findSkillNamesByUserIdIn(userIds)) {
+                skillsByUserId.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+
+        List<ProfileFeatures> features = new ArrayList<>(profiles.size());
+        for (UserProfile profile : profiles) {
+            Long userId = profile.getUser() != null ? profile.getUser().getId() : null;
+            features.add(encode(profile, skillsByUserId.get(userId)));
+        }
+        return features;
+    }
+
+    public ProfileFeatures encode(UserProfile profile, Collection<String> skillNames) {
+        long[] interests = new long[ProfileFeatures.WORDS];
+        long[] languages = new long[ProfileFeatures.WORDS];
+        long[] languageLevels = new long[ProfileFeatures.WORDS];
+        long[] skills = new long[ProfileFeatures.WORDS];
+
+        if (profile.getInterests() != null) {
+            for (String interest : profile.getInterests()) {
+                setTerm(interests, interest);
+            }
+        }
+        if (profile.getLanguages() != null) {
+            for (UserProfile.LanguageProficiency language : profile.getLanguages()) {
+                setTerm(languages, language.getName());
+                if (language.getName() != null && language.getLevel() != null) {
+                    setTerm(languageLevels, language.getName() + '\u0000' + language.getLevel());
+                }
+            }
+        }
+        if (skillNames != null) {
+            for (String skill : skillNames) {
+                setTerm(skills, skill);
+            }
+        }
+
+        return new ProfileFeatures(
+                profile.getUser() != null ? profile.getUser().getId() : 0L,
+                interests,
+                languages,
+                languageLevels,
+                skills,
+                lookingForMask(profile.getLookingFor()),
+                termHash(profile.getUniversity()),
+                termHash(profile.getMajor()));
+    }
+
+    private static int lookingForMask(UserProfile.LookingFor lookingFor) {
+        if (lookingFor == null) {
+            return 0;
+        }
+        return (lookingFor.isStudyPartner() ? 1 : 0)
+                | (lookingFor.isLanguageExchange() ? 1 << 1 : 0)
+                | (lookingFor.isFriendship() ? 1 << 2 : 0)
+                | (lookingFor.isNetworking() ? 1 << 3 : 0)
+                | (lookingFor.isCommunity() ? 1 << 4 : 0);
+    }
+
+    private static void setTerm(long[] bits, String term) {
+        int hash = termHash(term);
+        if (hash == 0) {
+            return;
+        }
+        int bit = (hash & 0x7fffffff) % (ProfileFeatures.WORDS * Long.SIZE);
+        bits[bit >>> 6] |= 1L << (bit & 63);
+    }
+
+    // Case- and whitespace-insensitive term hash; 0 is reserved for "no value"
+    static int termHash(String term) {
+        if (term == null) {
+            return 0;
+        }
+        String normalized = term.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return 0;
+        }
+        int h = normalized.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+}
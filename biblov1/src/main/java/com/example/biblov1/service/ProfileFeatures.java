@@ -0,0 +1,32 @@
+package com.example.biblov1.service;
+
+// Compact, immutable feature vector for one profile. Term sets are hashed into fixed-width bitsets
+// so that comparing two profiles is a handful of AND/OR/popcount operations with no allocation.
+public final class ProfileFeatures {
+    static final int WORDS = 8; // 512 bits per term set
+
+    final long userId;
+    final long[] interests;
+    final long[] languages;        // language name only
+    final long[] languageLevels;   // language name + proficiency level
+    final long[] skills;
+    final int lookingFor;          // one bit per LookingFor flag
+    final int university;          // hashed, 0 when unknown
+    final int major;               // hashed, 0 when unknown
+
+    ProfileFeatures(long userId, long[] interests, long[] languages, long[] languageLevels, long[] skills,
+                    int lookingFor, int university, int major) {
+        this.userId = userId;
+        this.interests = interests;
+        this.languages = languages;
+        this.languageLevels = languageLevels;
+        this.skills = skills;
+        this.lookingFor = lookingFor;
+        this.university = university;
+        this.major = major;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.biblov1.service;
+
+import com.example.biblov1.repository.UserSwipeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+// In-memory index of the user IDs each user has already swiped on.
+// Hot users stay cached in LRU order; cold users are evicted and rebuilt from user_swipes on the next read.
+// A set larger than the whole entry budget is never cached and is read from user_swipes on every lookup.
+@Component
+public class SwipedUserIndex {
+
+    private final UserSwipeRepository userSwipeRepository;
+    private final int maxUsers;
+    private final long maxEntries;
+
+    private final LinkedHashMap<Long, LongSet> swipedByUser = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalEntries;
+
+    public SwipedUserIndex(UserSwipeRepository userSwipeRepository,
+                           @Value("${app.discovery.swipe-index.max-users:10000}") int maxUsers,
+                           @Value("${app.discovery.swipe-index.max-entries:2000000}") long maxEntries) {
+        this.userSwipeRepository = userSwipeRepository;
+        this.maxUsers = maxUsers;
+        this.maxEntries = maxEntries;
+    }
+
+    // The swiper's set resolved once, for callers testing many candidates; each test takes only the set's own lock
+    public LongPredicate swipedBy(Long swiperId) {
+        return swipedSet(swiperId)::contains;
+    }
+
+    // Records a swipe once the surrounding transaction commits, so rolled-back swipes never reach the index
+    public void recordSwipe(Long swiperId, Long swipedId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addIfCached(swiperId, swipedId);
+                }
+            });
+        } else {
+            addIfCached(swiperId, swipedId);
+        }
+    }
+
+    // Called when the user is deleted
+    public void evict(Long userId) {
+        synchronized (swipedByUser) {
+            LongSet removed = swipedByUser.remove(userId);
+            if (removed != null) {
+                totalEntries -= removed.size();
+            }
+        }
+    }
+
+    private LongSet swipedSet(Long userId) {
+        synchronized (swipedByUser) {
+            LongSet cached = swipedByUser.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Cache miss: rebuild from the database outside the lock. A swipe committing during the rebuild may be
+        // missed until the next eviction, which only means one already-swiped profile can resurface once.
+        List<Long> swipedIds = userSwipeRepository.findSwipedIdsBySwiperId(userId);
+        LongSet rebuilt = new LongSet(swipedIds.size());
+        for (Long id : swipedIds) {
+            rebuilt.add(id);
+        }
+
+        if (rebuilt.size() > maxEntries) {
+            // Caching it would only evict every other user and then itself
+            return rebuilt;
+        }
+        synchronized (swipedByUser) {
+            LongSet existing = swipedByUser.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            swipedByUser.put(userId, rebuilt);
+            totalEntries += rebuilt.size();
+            evictColdUsers();
+            return rebuilt;
+        }
+    }
+
+    private void addIfCached(Long swiperId, Long swipedId) {
+        synchronized (swipedByUser) {
+            LongSet cached = swipedByUser.get(swiperId);
+            // Uncached users pick up the swipe from the database on their next rebuild
+            if (cached != null && cached.add(swipedId)) {
+                totalEntries++;
+                evictColdUsers();
+            }
+        }
+    }
+
+    private void evictColdUsers() {
+        Iterator<Map.Entry<Long, LongSet>> eldest = swipedByUser.entrySet().iterator();
+        while ((swipedByUser.size() > maxUsers || totalEntries > maxEntries) && eldest.hasNext()) {
+            totalEntries -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+    }
+
+    // Open-addressing set of positive longs; 0 marks an empty slot since entity IDs start at 1
+    static final class LongSet {
+        private long[] slots;
+        private int size;
+
+        LongSet(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+            slots = new long[capacity];
+        }
+
+        synchronized boolean contains(long value) {
+            int mask = slots.length - 1;
+            for (int i = mix(value) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                if (slots[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized boolean add(long value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("Only positive IDs can be indexed");
+            }
+            if ((size + 1) * 2 > slots.length) {
+                rehash(slots.length << 1);
+            }
+            int mask = slots.length - 1;
+            int i = mix(value) & mask;
+            while (slots[i] != 0) {
+                if (slots[i] == value) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            slots[i] = value;
+            size++;
+            return true;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void rehash(int capacity) {
+            long[] old = slots;
+            slots = new long[capacity];
+            int mask = capacity - 1;
+            for (long v : old) {
+                if (v == 0) {
+                    continue;
+                }
+                int i = mix(v) & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = v;
+            }
+        }
+
+        private static int mix(long value) {
+            long h = value * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -1,21 +1,27 @@
 package com.example.biblov1.service;
 
 import com.example.biblov1.model.UserProfile;
-import com.example.biblov1.model.User;
+import com.example.biblov1.repository.SkillRepository;
 import com.example.biblov1.repository.UserProfileRepository;
 import com.example.biblov1.repository.UserSwipeRepository;
 import com.example.biblov1.repository.UserRepository;
 import com.example.biblov1.exception.ResourceNotFoundException;
+import com.example.biblov1.payload.response.CursorPage;
+import com.example.biblov1.payload.response.ProfileCard;
+import com.example.biblov1.payload.response.ProfileView;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.UUID;
 import java.util.List;
-import java.util.Set;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,14 +29,29 @@ public class UserProfileService {
     private final UserProfileRepository profileRepository;
     private final UserSwipeRepository userSwipeRepository;
     private final UserRepository userRepository;
+    private final SkillRepository skillRepository;
+    private final SwipedUserIndex swipedUserIndex;
+    private final ProfileFeatureEncoder featureEncoder;
+    private final CompatibilityScoringEngine scoringEngine;
     
     @Value("${app.upload.dir}")
     private String uploadDir;
 
-    public UserProfileService(UserProfileRepository profileRepository, UserSwipeRepository userSwipeRepository, UserRepository userRepository) {
+    @Value("${app.discovery.page-size:20}")
+    private int discoveryPageSize;
+
+    @Value("${app.discovery.max-page-size:100}")
+    private int discoveryMaxPageSize;
+
+    public UserProfileService(UserProfileRepository profileRepository, UserSwipeRepository userSwipeRepository, UserRepository userRepository, SkillRepository skillRepository, SwipedUserIndex swipedUserIndex,
+                              ProfileFeatureEncoder featureEncoder, CompatibilityScoringEngine scoringEngine) {
         this.profileRepository = profileRepository;
         this.userSwipeRepository = userSwipeRepository;
         this.userRepository = userRepository;
+        this.skillRepository = skillRepository;
+        this.swipedUserIndex = swipedUserIndex;
+        this.featureEncoder = featureEncoder;
+        this.scoringEngine = scoringEngine;
     }
 
     public UserProfile getProfileByUserId(Long userId) {
@@ -38,11 +59,18 @@ public class UserProfileService {
             .orElseThrow(() -> new ResourceNotFoundException("Profile not found for user: " + userId));
     }
 
+    // The profile as shown on profile pages: card fields plus the user's skills, read by user ID without loading the user
+    @Transactional(readOnly = true)
+    public ProfileView getProfileView(Long userId) {
+        return ProfileView.from(getProfileByUserId(userId), skillRepository.findByUserId(userId));
+    }
+
     public UserProfile createProfile(UserProfile profile) {
         return profileRepository.save(profile);
     }
 
-    public UserProfile updateProfile(Long userId, UserProfile updatedProfile) {
+    @Transactional
+    public ProfileView updateProfile(Long userId, UserProfile updatedProfile) {
         UserProfile existingProfile = getProfileByUserId(userId);
         
         // Update fields
@@ -58,7 +86,7 @@ public class UserProfileService {
         existingProfile.setLookingFor(updatedProfile.getLookingFor());
         existingProfile.setSocialLinks(updatedProfile.getSocialLinks());
 
-        return profileRepository.save(existingProfile);
+        return ProfileView.from(profileRepository.save(existingProfile), skillRepository.findByUserId(userId));
     }
 
     public String uploadProfilePicture(Long userId, MultipartFile file) throws IOException {
@@ -119,21 +147,49 @@ public class UserProfileService {
         // If profilePictureUrl is null, do nothing
     }
 
-    public List<UserProfile> getAllProfilesExcludingUser(Long userId) {
-        User currentUser = userRepository.findById(userId)
-                                    .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
+    // Profiles are ranked as entities, since scoring needs their interests and languages, and leave as cards
+    @Transactional(readOnly = true)
+    public List<ProfileCard> getAllProfilesExcludingUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Current user not found");
+        }
 
-        // Get IDs of profiles the current user has already swiped on
-        Set<Long> swipedUserIds = userSwipeRepository.findBySwiper(currentUser).stream()
-                                                    .map(userSwipe -> userSwipe.getSwiped().getId())
-                                                    .collect(Collectors.toSet());
+        // Fetch all profiles, then drop the current user and anyone already swiped on (O(1) set lookups)
+        LongPredicate swiped = swipedUserIndex.swipedBy(userId);
+        List<UserProfile> candidates = profileRepository.findAllWithUser().stream()
+                                .filter(profile -> {
+                                    Long profileUserId = profile.getUser().getId();
+                                    return !profileUserId.equals(userId) && !swiped.test(profileUserId);
+                                })
+                                .collect(Collectors.toList());
 
-        // Also exclude the current user's own profile
-        swipedUserIds.add(userId);
+        // Best matches first; without a viewer profile there is nothing to score against
+        UserProfile viewer = profileRepository.findByUserId(userId).orElse(null);
+        if (viewer == null || candidates.isEmpty()) {
+            return candidates.stream().map(ProfileCard::from).collect(Collectors.toList());
+        }
+        ProfileFeatures viewerFeatures = featureEncoder.encodeAll(List.of(viewer)).get(0);
+        int[] order = scoringEngine.rank(viewerFeatures, featureEncoder.encodeAll(candidates));
+        List<ProfileCard> ranked = new ArrayList<>(order.length);
+        for (int index : order) {
+            ranked.add(ProfileCard.from(candidates.get(index)));
+        }
+        return ranked;
+    }
 
-        // Fetch all profiles, then filter out swiped ones
-        return profileRepository.findAll().stream()
-                                .filter(profile -> !swipedUserIds.contains(profile.getUser().getId()))
-                                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ProfileCard> getDiscoveryPage(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? discoveryPageSize : Math.max(1, Math.min(limit, discoveryMaxPageSize));
+        long afterId = cursor == null || cursor.isBlank() ? 0L : CursorCodec.decodeLong(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        List<UserProfile> profiles = profileRepository.findDiscoverableAfter(userId, afterId, PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (profiles.size() > pageSize) {
+            profiles = profiles.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(profiles.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(profiles.stream().map(ProfileCard::from).collect(Collectors.toList()), nextCursor);
     }
-}
\ No newline at end of file
+}
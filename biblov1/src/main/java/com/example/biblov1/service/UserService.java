@@ -1,7 +1,9 @@
 package com.example.biblov1.service;
 
+import com.example.biblov1.config.security.jwt.JwtRevocationCache;
 import com.example.biblov1.model.User;
 import com.example.biblov1.model.Skill;
+import com.example.biblov1.payload.response.UserSummary;
 import com.example.biblov1.repository.UserRepository;
 import com.example.biblov1.repository.SkillRepository;
 import org.springframework.stereotype.Service;
@@ -16,13 +18,22 @@ public class UserService {
     private final UserRepository userRepository;
     private final SkillRepository skillRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JwtRevocationCache jwtRevocationCache;
+    private final SwipedUserIndex swipedUserIndex;
+    private final CandidateQueueService candidateQueueService;
 
     public UserService(UserRepository userRepository, 
                       SkillRepository skillRepository,
-                      PasswordEncoder passwordEncoder) {
+                      PasswordEncoder passwordEncoder,
+                      JwtRevocationCache jwtRevocationCache,
+                      SwipedUserIndex swipedUserIndex,
+                      CandidateQueueService candidateQueueService) {
         this.userRepository = userRepository;
         this.skillRepository = skillRepository;
         this.passwordEncoder = passwordEncoder;
+        this.jwtRevocationCache = jwtRevocationCache;
+        this.swipedUserIndex = swipedUserIndex;
+        this.candidateQueueService = candidateQueueService;
     }
 
     public User createUser(User user) {
@@ -47,8 +58,8 @@ public class UserService {
         return userRepository.save(newUser);
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllSummaries();
     }
     public User getUserById(Long id) {
         return userRepository.findById(id)
@@ -72,6 +83,11 @@ public class UserService {
             throw new RuntimeException("User not found with id: " + userId);
         }
         userRepository.deleteById(userId);
+        // Authentication does not look users up, so tokens already issued to the account are revoked
+        jwtRevocationCache.revokeUser(userId);
+        // Nothing in memory should outlive the account's swipes
+        swipedUserIndex.evict(userId);
+        candidateQueueService.evict(userId);
     }
 
     public User getUserByEmail(String email) {
@@ -92,7 +108,7 @@ public class UserService {
         User user = getUserById(userId);
         skill.setUser(user);
         skillRepository.save(skill);
-        return getUserById(userId); // Return updated user
+        return getUserWithSkills(userId); // Return updated user
     }
 
     @Transactional
@@ -106,6 +122,12 @@ public class UserService {
         }
         
         skillRepository.delete(skill);
-        return getUserById(userId); // Return updated user
+        return getUserWithSkills(userId); // Return updated user
+    }
+
+    // Skills are lazy on User, so callers that show them load them in the same query
+    private User getUserWithSkills(Long userId) {
+        return userRepository.findWithSkillsById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
     }
 }
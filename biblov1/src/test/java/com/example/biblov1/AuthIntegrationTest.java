@@ -1,8 +1,12 @@
 package com.example.biblov1;
 
+import com.example.biblov1.model.User;
 import com.example.biblov1.testsupport.TestAuthSupport;
 import com.example.biblov1.testsupport.TestDatabaseCleanup;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +16,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -22,6 +29,7 @@ class AuthIntegrationTest {
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
     @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private EntityManagerFactory entityManagerFactory;
 
     @BeforeEach
     void resetDb() {
@@ -62,6 +70,43 @@ class AuthIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void should_authenticate_from_token_claims_without_loading_the_user() throws Exception {
+        TestAuthSupport.TestUser user = TestAuthSupport.registerAndLogin(
+                mockMvc, objectMapper, "Alice", "alice@example.com", "password123"
+        );
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long userLoads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+        mockMvc.perform(
+                        get("/api/auth/me")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(user.id()))
+                .andExpect(jsonPath("$.email").value("alice@example.com"))
+                .andExpect(jsonPath("$.username").value("Alice"));
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(userLoads);
+    }
+
+    @Test
+    void should_reject_token_after_logout() throws Exception {
+        TestAuthSupport.TestUser user = TestAuthSupport.registerAndLogin(
+                mockMvc, objectMapper, "Alice", "alice@example.com", "password123"
+        );
+
+        mockMvc.perform(
+                        post("/api/auth/logout")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk());
+        mockMvc.perform(
+                        get("/api/communities")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void should_reject_request_with_invalid_token() throws Exception {
         mockMvc.perform(
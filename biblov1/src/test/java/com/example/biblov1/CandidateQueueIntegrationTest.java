@@ -0,0 +1,209 @@
+package com.example.biblov1;
+
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Small queue, scan window, swiped-index budget and refill pool, so overflow, wrap-around, uncached swiped sets
+// and rejected refills happen with a handful of users
+@SpringBootTest(properties = {
+        "app.discovery.queue.size=2",
+        "app.discovery.queue.low-water-mark=1",
+        "app.discovery.queue.scan-size=4",
+        "app.discovery.queue.refill-threads=1",
+        "app.discovery.queue.refill-queue-capacity=1",
+        "app.discovery.swipe-index.max-entries=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CandidateQueueIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired @Qualifier("candidateRefillExecutor") private ThreadPoolTaskExecutor refillExecutor;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_serve_ranked_overflow_before_scanning_on_and_recover_an_empty_deck() throws Exception {
+        TestAuthSupport.TestUser viewer = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Viewer", "viewer@example.com", "password123");
+        List<Long> others = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            others.add(TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "User " + i, "user" + i + "@example.com", "password123").id());
+        }
+        Set<Long> firstWindow = new HashSet<>(others.subList(0, 4));
+
+        // The first window holds four profiles; two are queued and two are kept for the next refill
+        Set<Long> deck = nextCandidates(viewer);
+        assertThat(deck).hasSize(2);
+        assertThat(firstWindow).containsAll(deck);
+        for (Long candidateId : deck) {
+            swipe(viewer, candidateId);
+        }
+        Set<Long> rest = new HashSet<>(firstWindow);
+        rest.removeAll(deck);
+        assertThat(awaitCandidates(viewer, rest::equals)).isEqualTo(rest);
+
+        // Then the scan moves on to the last profile, and after it the deck runs dry
+        for (Long candidateId : rest) {
+            swipe(viewer, candidateId);
+        }
+        Long last = others.get(4);
+        assertThat(awaitCandidates(viewer, Set.of(last)::equals)).containsExactly(last);
+        swipe(viewer, last);
+        assertThat(awaitCandidates(viewer, Set::isEmpty)).isEmpty();
+
+        // Opening the empty deck is enough to pick up someone who registered since
+        Long newcomer = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Newcomer", "new@example.com", "password123").id();
+        assertThat(awaitCandidates(viewer, candidates -> !candidates.isEmpty())).containsExactly(newcomer);
+    }
+
+    @Test
+    void should_refill_again_after_a_refill_was_rejected_by_a_saturated_pool() throws Exception {
+        TestAuthSupport.TestUser viewer = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Viewer", "viewer@example.com", "password123");
+        Set<Long> others = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            others.add(TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "User " + i, "user" + i + "@example.com", "password123").id());
+        }
+        Set<Long> deck = nextCandidates(viewer);
+        assertThat(deck).hasSize(2);
+
+        // Occupy the only refill thread and the one queue slot, so the refill after the swipe is rejected
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            refillExecutor.execute(blocker);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            refillExecutor.execute(blocker);
+
+            Long swiped = deck.iterator().next();
+            swipe(viewer, swiped);
+            assertThat(nextCandidates(viewer)).hasSize(1);
+        } finally {
+            release.countDown();
+        }
+
+        // Once the pool drains, reading the short deck schedules the refill again
+        Set<Long> rest = new HashSet<>(others);
+        rest.remove(deck.iterator().next());
+        assertThat(awaitCandidates(viewer, rest::equals)).isEqualTo(rest);
+    }
+
+    @Test
+    void should_read_swiped_sets_over_the_entry_budget_from_the_database_each_time() throws Exception {
+        TestAuthSupport.TestUser viewer = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Viewer", "viewer@example.com", "password123");
+        List<Long> others = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            others.add(TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "User " + i, "user" + i + "@example.com", "password123").id());
+        }
+        QueryStatistics swipedLookups = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getQueryStatistics("select s.swiped.id from UserSwipe s where s.swiper.id = :swiperId");
+
+        // One swipe fits the budget, so the set is read once and then served from memory
+        swipe(viewer, others.get(0));
+        long lookups = swipedLookups.getExecutionCount();
+        assertThat(legacyDiscover(viewer)).containsExactlyInAnyOrderElementsOf(others.subList(1, 4));
+        assertThat(legacyDiscover(viewer)).containsExactlyInAnyOrderElementsOf(others.subList(1, 4));
+        assertThat(swipedLookups.getExecutionCount()).isEqualTo(lookups + 1);
+
+        // Three swipes do not, so every request reads them again instead of evicting everyone else
+        swipe(viewer, others.get(1));
+        swipe(viewer, others.get(2));
+        lookups = swipedLookups.getExecutionCount();
+        assertThat(legacyDiscover(viewer)).containsExactly(others.get(3));
+        assertThat(legacyDiscover(viewer)).containsExactly(others.get(3));
+        assertThat(swipedLookups.getExecutionCount()).isEqualTo(lookups + 2);
+    }
+
+    private List<Long> legacyDiscover(TestAuthSupport.TestUser user) throws Exception {
+        String body = mockMvc.perform(
+                        get("/api/profiles/discover")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode card : objectMapper.readTree(body)) {
+            ids.add(card.get("userId").asLong());
+        }
+        return ids;
+    }
+
+    // Refills run in the background, so the deck is polled until it settles
+    private Set<Long> awaitCandidates(TestAuthSupport.TestUser user, Predicate<Set<Long>> settled) throws Exception {
+        Set<Long> candidates = nextCandidates(user);
+        for (int attempt = 0; attempt < 50 && !settled.test(candidates); attempt++) {
+            Thread.sleep(100);
+            candidates = nextCandidates(user);
+        }
+        return candidates;
+    }
+
+    private Set<Long> nextCandidates(TestAuthSupport.TestUser user) throws Exception {
+        String body = mockMvc.perform(
+                        get("/api/profiles/discover/next")
+                                .param("count", "10")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode card : objectMapper.readTree(body)) {
+            ids.add(card.get("userId").asLong());
+        }
+        return ids;
+    }
+
+    private void swipe(TestAuthSupport.TestUser swiper, Long swipedUserId) throws Exception {
+        mockMvc.perform(
+                        post("/api/matches/swipe")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + swiper.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "swipedUserId", swipedUserId,
+                                        "swipeType", "DISLIKE"
+                                )))
+                )
+                .andExpect(status().isOk());
+    }
+}
@@ -1,9 +1,22 @@
 package com.example.biblov1;
 
+import com.example.biblov1.model.ChatRoom;
+import com.example.biblov1.model.Message;
+import com.example.biblov1.model.StudyMatch;
+import com.example.biblov1.model.User;
+import com.example.biblov1.repository.ChatRoomRepository;
+import com.example.biblov1.repository.StudyMatchRepository;
+import com.example.biblov1.repository.UserRepository;
+import com.example.biblov1.service.ChatRoomMembershipCache;
+import com.example.biblov1.service.ChatService;
 import com.example.biblov1.testsupport.TestAuthSupport;
 import com.example.biblov1.testsupport.TestDatabaseCleanup;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +25,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
@@ -26,9 +41,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 class ChatAuthorizationIntegrationTest {
+    private static final String PARTICIPANTS_QUERY =
+            "select r.user1.id as user1Id, r.user2.id as user2Id from ChatRoom r where r.id = :chatRoomId";
+
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
     @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ChatService chatService;
+    @Autowired private ChatRoomMembershipCache membershipCache;
+    @Autowired private UserRepository userRepository;
+    @Autowired private StudyMatchRepository studyMatchRepository;
+    @Autowired private ChatRoomRepository chatRoomRepository;
 
     @BeforeEach
     void resetDb() {
@@ -81,7 +106,268 @@ class ChatAuthorizationIntegrationTest {
                                 .header("Authorization", "Bearer " + b.token())
                 )
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].content").value("Hi B!"));
+                .andExpect(jsonPath("$[0].content").value("Hi B!"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + a.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "chatRoomId", chatRoomId,
+                                        "content", "   "
+                                )))
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_authorize_sends_without_loading_room_or_user_entities() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+        send(a, chatRoomId, "warm-up"); // loads the room's participant pair into the membership cache
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long roomLoads = statistics.getEntityStatistics(ChatRoom.class.getName()).getLoadCount();
+        long userLoads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+        send(a, chatRoomId, "one");
+        send(b, chatRoomId, "two");
+        mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + c.token())
+                                .content(objectMapper.writeValueAsString(Map.of("chatRoomId", chatRoomId, "content", "intruder")))
+                )
+                .andExpect(status().isForbidden());
+        assertThat(statistics.getEntityStatistics(ChatRoom.class.getName()).getLoadCount()).isEqualTo(roomLoads);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(userLoads);
+
+        mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + a.token())
+                                .content(objectMapper.writeValueAsString(Map.of("chatRoomId", chatRoomId + 1000, "content", "nowhere")))
+                )
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void should_cache_room_participants_only_once_the_room_is_committed() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+
+        Long rolledBackRoomId = transactionTemplate.execute(status -> {
+            User u1 = userRepository.findById(a.id()).orElseThrow();
+            User u2 = userRepository.findById(b.id()).orElseThrow();
+            StudyMatch match = new StudyMatch();
+            match.setUser1(u1);
+            match.setUser2(u2);
+            match.setStatus(StudyMatch.MatchStatus.MATCHED);
+            Long roomId = chatService.createChatRoom(u1, u2, studyMatchRepository.save(match)).getId();
+            status.setRollbackOnly();
+            return roomId;
+        });
+        assertThat(membershipCache.isParticipant(rolledBackRoomId, a.id())).isFalse();
+
+        // A committed room is answered from the entry added after commit, without the lazy participants query
+        QueryStatistics participantLookups = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getQueryStatistics(PARTICIPANTS_QUERY);
+        long lookups = participantLookups.getExecutionCount();
+        Long committedRoomId = transactionTemplate.execute(status -> {
+            StudyMatch match = new StudyMatch();
+            match.setUser1(userRepository.getReferenceById(a.id()));
+            match.setUser2(userRepository.getReferenceById(b.id()));
+            match.setStatus(StudyMatch.MatchStatus.MATCHED);
+            return chatService.findOrCreateChatRoom(a.id(), b.id(), studyMatchRepository.save(match)).getId();
+        });
+        assertThat(membershipCache.isParticipant(committedRoomId, a.id())).isTrue();
+        assertThat(membershipCache.isParticipant(committedRoomId, b.id())).isTrue();
+        assertThat(participantLookups.getExecutionCount()).isEqualTo(lookups);
+    }
+
+    @Test
+    void should_evict_the_least_recently_used_room_when_the_membership_cache_is_full() {
+        ChatRoomMembershipCache cache = new ChatRoomMembershipCache(chatRoomRepository, 2);
+        QueryStatistics participantLookups = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getQueryStatistics(PARTICIPANTS_QUERY);
+        cache.put(1L, 10L, 11L);
+        cache.put(2L, 20L, 21L);
+        assertThat(cache.isParticipant(1L, 10L)).isTrue();
+
+        // Room 2 is now the coldest, so adding a third room drops only that one
+        cache.put(3L, 30L, 31L);
+        long lookups = participantLookups.getExecutionCount();
+        assertThat(cache.isParticipant(1L, 11L)).isTrue();
+        assertThat(cache.isParticipant(3L, 30L)).isTrue();
+        assertThat(participantLookups.getExecutionCount()).isEqualTo(lookups);
+        assertThat(cache.isParticipant(2L, 20L)).isFalse(); // reloaded, and the database has no such room
+        assertThat(participantLookups.getExecutionCount()).isEqualTo(lookups + 1);
+    }
+
+    @Test
+    void should_sync_message_windows_by_id() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+        long[] ids = new long[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = send(i % 2 == 0 ? a : b, chatRoomId, "m" + (i + 1));
+        }
+        String messages = "/api/chat/rooms/" + chatRoomId + "/messages";
+
+        mockMvc.perform(get(messages).param("limit", "2").header("Authorization", "Bearer " + b.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].content").value("m4"))
+                .andExpect(jsonPath("$[1].content").value("m5"));
+
+        mockMvc.perform(get(messages).param("beforeId", String.valueOf(ids[3])).param("limit", "2").header("Authorization", "Bearer " + b.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].content").value("m2"))
+                .andExpect(jsonPath("$[1].content").value("m3"));
+
+        mockMvc.perform(get(messages).param("afterId", String.valueOf(ids[1])).header("Authorization", "Bearer " + a.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].content").value("m3"))
+                .andExpect(jsonPath("$[2].content").value("m5"));
+
+        mockMvc.perform(get(messages).param("afterId", String.valueOf(ids[4])).header("Authorization", "Bearer " + a.token()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(get(messages).param("afterId", "1").param("beforeId", "9").header("Authorization", "Bearer " + a.token()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(messages).param("afterId", "0").header("Authorization", "Bearer " + c.token()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void should_summarize_inbox_with_last_message_and_unread_counts() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+
+        makeMutualMatch(a, c);
+        makeMutualMatch(a, b);
+        long roomWithB = getFirstChatRoomId(b);
+        send(a, roomWithB, "hey");
+        send(b, roomWithB, "hi!");
+        send(b, roomWithB, "x".repeat(300));
+
+        JsonNode inbox = getJson(a, "/api/chat/inbox");
+        assertThat(inbox).hasSize(2);
+        JsonNode withB = inbox.get(0);
+        assertThat(withB.get("chatRoomId").asLong()).isEqualTo(roomWithB);
+        assertThat(withB.get("peerId").asLong()).isEqualTo(b.id());
+        assertThat(withB.get("peerName").asText()).isEqualTo("Bob");
+        assertThat(withB.get("lastMessageSnippet").asText()).hasSize(120);
+        assertThat(withB.get("unreadCount").asLong()).isEqualTo(2);
+        JsonNode withC = inbox.get(1);
+        assertThat(withC.get("peerName").asText()).isEqualTo("Carol");
+        assertThat(withC.get("lastMessageId").isNull()).isTrue();
+        assertThat(withC.get("unreadCount").asLong()).isZero();
+
+        // The sender's own messages never count as unread
+        assertThat(getJson(b, "/api/chat/inbox").get(0).get("unreadCount").asLong()).isEqualTo(1);
+
+        // Reading the latest window advances the cursor; older windows never move it back
+        getJson(a, "/api/chat/rooms/" + roomWithB + "/messages?limit=1");
+        getJson(a, "/api/chat/rooms/" + roomWithB + "/messages?beforeId=" + withB.get("lastMessageId").asLong());
+        assertThat(getJson(a, "/api/chat/inbox").get(0).get("unreadCount").asLong()).isZero();
+
+        long latest = send(b, roomWithB, "still there?");
+        assertThat(getJson(a, "/api/chat/inbox").get(0).get("unreadCount").asLong()).isEqualTo(1);
+        mockMvc.perform(
+                        post("/api/chat/rooms/" + roomWithB + "/read")
+                                .param("messageId", String.valueOf(latest + 1000))
+                                .header("Authorization", "Bearer " + a.token())
+                )
+                .andExpect(status().isOk());
+        assertThat(getJson(a, "/api/chat/inbox").get(0).get("unreadCount").asLong()).isZero();
+        send(b, roomWithB, "ping");
+        assertThat(getJson(a, "/api/chat/inbox").get(0).get("unreadCount").asLong()).isEqualTo(1);
+
+        mockMvc.perform(
+                        post("/api/chat/rooms/" + roomWithB + "/read")
+                                .param("messageId", String.valueOf(latest))
+                                .header("Authorization", "Bearer " + c.token())
+                )
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void should_read_rooms_messages_matches_and_users_as_projections_without_loading_entities() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+        send(a, chatRoomId, "hello");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long[] loadsBefore = entityLoads(statistics);
+
+        JsonNode rooms = getJson(b, "/api/chat/rooms");
+        assertThat(rooms.get(0).get("id").asLong()).isEqualTo(chatRoomId);
+        assertThat(rooms.get(0).has("user1")).isFalse();
+
+        JsonNode message = getJson(b, "/api/chat/rooms/" + chatRoomId + "/messages").get(0);
+        assertThat(message.get("senderId").asLong()).isEqualTo(a.id());
+        assertThat(message.get("senderName").asText()).isEqualTo("Alice");
+        assertThat(message.get("chatRoomId").asLong()).isEqualTo(chatRoomId);
+        assertThat(message.has("sender")).isFalse();
+
+        JsonNode matches = getJson(a, "/api/matches/me");
+        assertThat(matches).hasSize(1);
+        assertThat(matches.get(0).get("peerId").asLong()).isEqualTo(b.id());
+        assertThat(matches.get(0).get("peerName").asText()).isEqualTo("Bob");
+        assertThat(matches.get(0).get("status").asText()).isEqualTo("MATCHED");
+
+        JsonNode users = getJson(a, "/api/users");
+        assertThat(users).hasSize(2);
+        assertThat(users.get(0).get("email").asText()).isEqualTo("a@example.com");
+        assertThat(users.get(0).has("password")).isFalse();
+        assertThat(users.get(0).has("skills")).isFalse();
+
+        assertThat(entityLoads(statistics)).containsExactly(loadsBefore);
+    }
+
+    private long[] entityLoads(Statistics statistics) {
+        return Stream.of(User.class, ChatRoom.class, Message.class, StudyMatch.class)
+                .mapToLong(type -> statistics.getEntityStatistics(type.getName()).getLoadCount())
+                .toArray();
+    }
+
+    private JsonNode getJson(TestAuthSupport.TestUser user, String path) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header("Authorization", "Bearer " + user.token()))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private long send(TestAuthSupport.TestUser sender, long chatRoomId, String content) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + sender.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "chatRoomId", chatRoomId,
+                                        "content", content
+                                )))
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
     }
 
     private void makeMutualMatch(TestAuthSupport.TestUser a, TestAuthSupport.TestUser b) throws Exception {
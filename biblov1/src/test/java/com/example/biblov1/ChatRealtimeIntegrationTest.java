@@ -0,0 +1,182 @@
+package com.example.biblov1;
+
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChatRealtimeIntegrationTest {
+    @LocalServerPort private int port;
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private SimpUserRegistry userRegistry;
+
+    private WebSocketStompClient stompClient;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        databaseCleanup.reset();
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(converter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.stream().filter(StompSession::isConnected).forEach(StompSession::disconnect);
+        stompClient.stop();
+    }
+
+    @Test
+    void should_push_saved_messages_to_both_participants_only() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+
+        BlockingQueue<JsonNode> inboxA = subscribe(a);
+        BlockingQueue<JsonNode> inboxB = subscribe(b);
+        BlockingQueue<JsonNode> inboxC = subscribe(c);
+
+        mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + a.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "chatRoomId", chatRoomId,
+                                        "content", "Hi B!"
+                                )))
+                )
+                .andExpect(status().isOk());
+
+        JsonNode received = inboxB.poll(5, TimeUnit.SECONDS);
+        assertThat(received).isNotNull();
+        assertThat(received.get("chatRoomId").asLong()).isEqualTo(chatRoomId);
+        assertThat(received.get("senderId").asLong()).isEqualTo(a.id());
+        assertThat(received.get("senderName").asText()).isEqualTo("Alice");
+        assertThat(received.get("content").asText()).isEqualTo("Hi B!");
+
+        JsonNode echoed = inboxA.poll(5, TimeUnit.SECONDS);
+        assertThat(echoed).isNotNull();
+        assertThat(echoed.get("id").asLong()).isEqualTo(received.get("id").asLong());
+
+        assertThat(inboxC.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void should_reject_stomp_connect_without_valid_token() {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer not-a-jwt");
+
+        assertThatThrownBy(() -> stompClient
+                .connectAsync(url(), new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                })
+                .get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    private BlockingQueue<JsonNode> subscribe(TestAuthSupport.TestUser user) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + user.token());
+        StompSession session = stompClient
+                .connectAsync(url(), new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                })
+                .get(5, TimeUnit.SECONDS);
+        sessions.add(session);
+
+        BlockingQueue<JsonNode> inbox = new LinkedBlockingQueue<>();
+        session.subscribe("/user/queue/messages", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                inbox.add((JsonNode) payload);
+            }
+        });
+        awaitSubscription(user.id());
+        return inbox;
+    }
+
+    // The simple broker sends no receipts, so wait until the server has registered the subscription
+    private void awaitSubscription(Long userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (userRegistry.findSubscriptions(s -> s.getSession().getUser().getName().equals(String.valueOf(userId))).isEmpty()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private String url() {
+        return "ws://localhost:" + port + "/ws";
+    }
+
+    private void makeMutualMatch(TestAuthSupport.TestUser a, TestAuthSupport.TestUser b) throws Exception {
+        for (TestAuthSupport.TestUser[] pair : new TestAuthSupport.TestUser[][]{{a, b}, {b, a}}) {
+            mockMvc.perform(
+                            post("/api/matches/swipe")
+                                    .contentType(APPLICATION_JSON)
+                                    .header("Authorization", "Bearer " + pair[0].token())
+                                    .content(objectMapper.writeValueAsString(Map.of(
+                                            "swipedUserId", pair[1].id(),
+                                            "swipeType", "LIKE"
+                                    )))
+                    )
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private long getFirstChatRoomId(TestAuthSupport.TestUser user) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        get("/api/chat/rooms")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get(0).get("id").asLong();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.biblov1;
+
+import com.example.biblov1.payload.response.ChatMessageResponse;
+import com.example.biblov1.repository.MessageBatchRepository;
+import com.example.biblov1.repository.MessageRepository;
+import com.example.biblov1.repository.UserRepository;
+import com.example.biblov1.service.ChatMessagePublisher;
+import com.example.biblov1.service.ChatMessageWriter;
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.chat.write-behind.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChatWriteBehindIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private ChatMessageWriter chatMessageWriter;
+    @Autowired private MessageBatchRepository messageBatchRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ChatMessagePublisher messagePublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_persist_concurrent_sends_in_group_commits() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+
+        int sends = 40;
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        List<Future<JsonNode>> acks = new ArrayList<>();
+        try {
+            for (int i = 0; i < sends; i++) {
+                TestAuthSupport.TestUser sender = i % 2 == 0 ? a : b;
+                String content = "m" + i;
+                acks.add(senders.submit(() -> send(sender, chatRoomId, content)));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<JsonNode> ack : acks) {
+                JsonNode saved = ack.get();
+                assertThat(saved.get("chatRoomId").asLong()).isEqualTo(chatRoomId);
+                assertThat(saved.get("senderName").asText()).isIn("Alice", "Bob");
+                ids.add(saved.get("id").asLong());
+            }
+            assertThat(ids).hasSize(sends);
+        } finally {
+            senders.shutdown();
+        }
+
+        // Acknowledged means committed: everything is readable right away
+        assertThat(messageRepository.count()).isEqualTo(sends);
+        mockMvc.perform(
+                        get("/api/chat/rooms/" + chatRoomId + "/messages")
+                                .param("afterId", "0")
+                                .param("limit", "200")
+                                .header("Authorization", "Bearer " + b.token())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(sends));
+
+        mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + c.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "chatRoomId", chatRoomId,
+                                        "content", "hello from C"
+                                )))
+                )
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void should_fail_only_the_offending_message_of_a_batch() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+
+        mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + a.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "chatRoomId", chatRoomId,
+                                        "content", " "
+                                )))
+                )
+                .andExpect(status().isBadRequest());
+
+        // The writer trusts its callers on participation, so an unknown room fails on the foreign key at insert time;
+        // it is queued between valid messages so that it shares a batch with some of them
+        List<CompletableFuture<ChatMessageResponse>> good = new ArrayList<>();
+        CompletableFuture<ChatMessageResponse> bad = null;
+        for (int i = 0; i < 20; i++) {
+            if (i == 10) {
+                bad = chatMessageWriter.submit(Long.MAX_VALUE, a.id(), b.id(), a.id(), "lost");
+            }
+            good.add(chatMessageWriter.submit(chatRoomId, a.id(), b.id(), a.id(), "m" + i));
+        }
+
+        assertThatThrownBy(bad::get).isInstanceOf(ExecutionException.class);
+        for (CompletableFuture<ChatMessageResponse> ack : good) {
+            assertThat(ack.get().getChatRoomId()).isEqualTo(chatRoomId);
+        }
+        assertThat(messageRepository.count()).isEqualTo(20);
+    }
+
+    @Test
+    void should_refuse_sends_once_stopped_and_leave_no_queued_message_unanswered() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+
+        // A writer of its own, so stopping it leaves the shared one running
+        ChatMessageWriter writer = new ChatMessageWriter(messageBatchRepository, userRepository, messagePublisher,
+                transactionManager, true, 1000, 5);
+        writer.start();
+        List<CompletableFuture<ChatMessageResponse>> acks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            acks.add(writer.submit(chatRoomId, a.id(), b.id(), a.id(), "m" + i));
+        }
+        writer.stop();
+
+        // Everything queued before the stop is written out, and later sends are refused instead of waiting forever
+        for (CompletableFuture<ChatMessageResponse> ack : acks) {
+            assertThat(ack).isDone();
+            assertThat(ack.get().getChatRoomId()).isEqualTo(chatRoomId);
+        }
+        assertThat(messageRepository.count()).isEqualTo(50);
+        assertThatThrownBy(() -> writer.submit(chatRoomId, a.id(), b.id(), a.id(), "late"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private JsonNode send(TestAuthSupport.TestUser sender, long chatRoomId, String content) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + sender.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "chatRoomId", chatRoomId,
+                                        "content", content
+                                )))
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private void makeMutualMatch(TestAuthSupport.TestUser a, TestAuthSupport.TestUser b) throws Exception {
+        for (TestAuthSupport.TestUser[] pair : new TestAuthSupport.TestUser[][]{{a, b}, {b, a}}) {
+            mockMvc.perform(
+                            post("/api/matches/swipe")
+                                    .contentType(APPLICATION_JSON)
+                                    .header("Authorization", "Bearer " + pair[0].token())
+                                    .content(objectMapper.writeValueAsString(Map.of(
+                                            "swipedUserId", pair[1].id(),
+                                            "swipeType", "LIKE"
+                                    )))
+                    )
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private long getFirstChatRoomId(TestAuthSupport.TestUser user) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        get("/api/chat/rooms")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get(0).get("id").asLong();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.biblov1;
+
+import com.example.biblov1.repository.MessageRepository;
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// No ack wait at all, so every write-behind send outlives its request
+@SpringBootTest(properties = {
+        "app.chat.write-behind.enabled=true",
+        "app.chat.write-behind.ack-timeout-ms=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChatWriteBehindPendingIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private MessageRepository messageRepository;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_report_an_unconfirmed_send_as_pending_and_still_save_it_once() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        makeMutualMatch(a, b);
+        long chatRoomId = getFirstChatRoomId(a);
+
+        // Accepted rather than failed, so the client has no reason to resend
+        mockMvc.perform(
+                        post("/api/chat/send")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + a.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "chatRoomId", chatRoomId,
+                                        "content", "hello"
+                                )))
+                )
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("pending"));
+
+        for (int attempt = 0; attempt < 50 && messageRepository.count() == 0; attempt++) {
+            Thread.sleep(100);
+        }
+        mockMvc.perform(
+                        get("/api/chat/rooms/" + chatRoomId + "/messages")
+                                .header("Authorization", "Bearer " + b.token())
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].content").value("hello"));
+    }
+
+    private void makeMutualMatch(TestAuthSupport.TestUser a, TestAuthSupport.TestUser b) throws Exception {
+        for (TestAuthSupport.TestUser[] pair : new TestAuthSupport.TestUser[][]{{a, b}, {b, a}}) {
+            mockMvc.perform(
+                            post("/api/matches/swipe")
+                                    .contentType(APPLICATION_JSON)
+                                    .header("Authorization", "Bearer " + pair[0].token())
+                                    .content(objectMapper.writeValueAsString(Map.of(
+                                            "swipedUserId", pair[1].id(),
+                                            "swipeType", "LIKE"
+                                    )))
+                    )
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private long getFirstChatRoomId(TestAuthSupport.TestUser user) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        get("/api/chat/rooms")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get(0).get("id").asLong();
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.biblov1;
+
+import com.example.biblov1.model.UserProfile;
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DiscoveryIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_page_through_unswiped_profiles_with_cursor() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+        TestAuthSupport.TestUser d = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Dave", "d@example.com", "password123");
+
+        mockMvc.perform(
+                        post("/api/matches/swipe")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + a.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "swipedUserId", b.id(),
+                                        "swipeType", "DISLIKE"
+                                )))
+                )
+                .andExpect(status().isOk());
+
+        JsonNode firstPage = getPage(a, null);
+        assertThat(firstPage.get("items")).hasSize(1);
+        assertThat(firstPage.get("items").get(0).get("userId").asLong()).isEqualTo(c.id());
+        assertThat(firstPage.get("nextCursor").isNull()).isFalse();
+
+        JsonNode secondPage = getPage(a, firstPage.get("nextCursor").asText());
+        assertThat(secondPage.get("items")).hasSize(1);
+        assertThat(secondPage.get("items").get(0).get("userId").asLong()).isEqualTo(d.id());
+        assertThat(secondPage.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void should_reject_malformed_cursor() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+
+        mockMvc.perform(
+                        get("/api/profiles/discover/page")
+                                .param("cursor", "not-a-cursor")
+                                .header("Authorization", "Bearer " + a.token())
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_serve_candidates_ranked_by_shared_interests_until_swiped() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+
+        updateProfile(a, "Alice", List.of("chess", "physics"));
+        updateProfile(b, "Bob", List.of("football"));
+        updateProfile(c, "Carol", List.of("chess", "physics"));
+
+        JsonNode deck = getNextCandidates(a);
+        assertThat(deck).hasSize(2);
+        assertThat(deck.get(0).get("userId").asLong()).isEqualTo(c.id());
+        assertThat(deck.get(1).get("userId").asLong()).isEqualTo(b.id());
+
+        mockMvc.perform(
+                        post("/api/matches/swipe")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + a.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "swipedUserId", c.id(),
+                                        "swipeType", "LIKE"
+                                )))
+                )
+                .andExpect(status().isOk());
+
+        JsonNode remaining = getNextCandidates(a);
+        assertThat(remaining).hasSize(1);
+        assertThat(remaining.get(0).get("userId").asLong()).isEqualTo(b.id());
+    }
+
+    @Test
+    void should_order_legacy_discover_list_by_compatibility() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+        TestAuthSupport.TestUser d = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Dave", "d@example.com", "password123");
+
+        updateProfile(a, "Alice", List.of("chess", "physics", "jazz"));
+        updateProfile(b, "Bob", List.of("football"));
+        updateProfile(c, "Carol", List.of("chess"));
+        updateProfile(d, "Dave", List.of("chess", "physics", "jazz"));
+
+        MvcResult result = mockMvc.perform(
+                        get("/api/profiles/discover")
+                                .header("Authorization", "Bearer " + a.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode profiles = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        assertThat(profiles).hasSize(3);
+        assertThat(profiles.get(0).get("userId").asLong()).isEqualTo(d.id());
+        assertThat(profiles.get(1).get("userId").asLong()).isEqualTo(c.id());
+        assertThat(profiles.get(2).get("userId").asLong()).isEqualTo(b.id());
+        // Cards carry public profile fields only, not the user account or the email
+        assertThat(profiles.get(0).has("user")).isFalse();
+        assertThat(profiles.get(0).has("email")).isFalse();
+        assertThat(profiles.get(0).get("interests")).hasSize(3);
+    }
+
+    @Test
+    void should_load_interests_and_languages_of_a_whole_page_in_one_query_each() throws Exception {
+        TestAuthSupport.TestUser viewer = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Viewer", "viewer@example.com", "password123");
+        for (int i = 0; i < 12; i++) {
+            TestAuthSupport.TestUser user = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "User " + i, "user" + i + "@example.com", "password123");
+            updateProfile(user, "User " + i, List.of("chess", "interest " + i), List.of(Map.of("name", "english", "level", "C1")));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String interests = UserProfile.class.getName() + ".interests";
+        String languages = UserProfile.class.getName() + ".languages";
+        long interestFetches = statistics.getCollectionStatistics(interests).getFetchCount();
+        long languageFetches = statistics.getCollectionStatistics(languages).getFetchCount();
+        long statements = statistics.getPrepareStatementCount();
+
+        JsonNode page = objectMapper.readTree(mockMvc.perform(
+                        get("/api/profiles/discover/page")
+                                .param("limit", "100")
+                                .header("Authorization", "Bearer " + viewer.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("items");
+        assertThat(page).hasSize(12);
+        assertThat(page).allSatisfy(card -> {
+            assertThat(card.get("interests")).hasSize(2);
+            assertThat(card.get("languages")).hasSize(1);
+        });
+        assertThat(statistics.getCollectionStatistics(interests).getFetchCount()).isEqualTo(interestFetches + 1);
+        assertThat(statistics.getCollectionStatistics(languages).getFetchCount()).isEqualTo(languageFetches + 1);
+        // Profiles with their users, then interests, then languages; no per-user skills selects
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements + 3);
+
+        // The legacy list loads every profile with its user in one query and batches the collections the same way
+        mockMvc.perform(
+                        get("/api/profiles/discover")
+                                .header("Authorization", "Bearer " + viewer.token())
+                )
+                .andExpect(status().isOk());
+        assertThat(statistics.getCollectionStatistics(interests).getFetchCount()).isEqualTo(interestFetches + 2);
+        assertThat(statistics.getCollectionStatistics(languages).getFetchCount()).isEqualTo(languageFetches + 2);
+    }
+
+    private void updateProfile(TestAuthSupport.TestUser user, String name, List<String> interests) throws Exception {
+        updateProfile(user, name, interests, List.of());
+    }
+
+    private void updateProfile(TestAuthSupport.TestUser user, String name, List<String> interests, List<Map<String, String>> languages) throws Exception {
+        mockMvc.perform(
+                        put("/api/profiles/me")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + user.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "name", name,
+                                        "major", "",
+                                        "interests", interests,
+                                        "languages", languages,
+                                        "lookingFor", Map.of(),
+                                        "socialLinks", Map.of()
+                                )))
+                )
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode getNextCandidates(TestAuthSupport.TestUser user) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        get("/api/profiles/discover/next")
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private JsonNode getPage(TestAuthSupport.TestUser user, String cursor) throws Exception {
+        var request = get("/api/profiles/discover/page")
+                .param("limit", "1")
+                .header("Authorization", "Bearer " + user.token());
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
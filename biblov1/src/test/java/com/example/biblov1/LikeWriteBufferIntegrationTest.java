@@ -0,0 +1,127 @@
+package com.example.biblov1;
+
+import com.example.biblov1.repository.LikeRepository;
+import com.example.biblov1.repository.PostRepository;
+import com.example.biblov1.service.LikeWriteBuffer;
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.likes.buffer.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LikeWriteBufferIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private PostRepository postRepository;
+    @Autowired private LikeRepository likeRepository;
+    @Autowired private LikeWriteBuffer likeWriteBuffer;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_coalesce_buffered_likes_and_flush_net_changes() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+
+        long communityId = createCommunity(a, "Geology");
+        long postId = createPost(a, communityId, "rocks", "[]");
+        like(a, postId);
+        like(b, postId);
+        like(c, postId);
+        like(c, postId); // toggled back before any flush: nothing to write
+
+        // Reads see the buffered state before anything reaches the database
+        assertThat(likeRepository.count()).isZero();
+        JsonNode buffered = getJson(b, "/api/posts/" + postId);
+        assertThat(buffered.get("likesCount").asLong()).isEqualTo(2);
+        assertThat(buffered.get("liked").asBoolean()).isTrue();
+        assertThat(getJson(c, "/api/posts/" + postId).get("liked").asBoolean()).isFalse();
+        assertThat(getJson(c, "/api/likes/post/" + postId + "/count").asLong()).isEqualTo(2);
+
+        likeWriteBuffer.flush();
+        assertThat(likeRepository.count()).isEqualTo(2);
+        assertThat(postRepository.findLikeCountById(postId)).contains(2L);
+
+        like(a, postId); // unlike after the flush
+        JsonNode afterUnlike = getJson(a, "/api/posts/community/" + communityId + "/feed");
+        assertThat(afterUnlike.get("items").get(0).get("likesCount").asLong()).isEqualTo(1);
+        assertThat(afterUnlike.get("items").get(0).get("liked").asBoolean()).isFalse();
+
+        likeWriteBuffer.flush();
+        assertThat(likeRepository.count()).isEqualTo(1);
+        assertThat(postRepository.findLikeCountById(postId)).contains(1L);
+        assertThat(getJson(b, "/api/posts/" + postId).get("likesCount").asLong()).isEqualTo(1);
+    }
+
+    private long createCommunity(TestAuthSupport.TestUser owner, String name) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        post("/api/communities")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + owner.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "name", name,
+                                        "description", name + " community",
+                                        "tags", List.of()
+                                )))
+                )
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private long createPost(TestAuthSupport.TestUser author, long communityId, String content, String hashtagsJson) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        multipart("/api/posts")
+                                .param("communityId", String.valueOf(communityId))
+                                .param("content", content)
+                                .param("hashtags", hashtagsJson)
+                                .header("Authorization", "Bearer " + author.token())
+                )
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private void like(TestAuthSupport.TestUser user, long postId) throws Exception {
+        mockMvc.perform(
+                        post("/api/likes/post/" + postId)
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode getJson(TestAuthSupport.TestUser user, String path) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        get(path)
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.biblov1;
+
+import com.example.biblov1.loadtest.LoadGenerator;
+import com.example.biblov1.loadtest.LoadReport;
+import com.example.biblov1.loadtest.LoadTestOptions;
+import com.example.biblov1.loadtest.WorkloadAction;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A few seconds of the load test against the in-process server, so the generator keeps working as the API changes
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoadGeneratorIntegrationTest {
+    @LocalServerPort private int port;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_seed_through_the_api_and_report_every_endpoint_of_the_mix() {
+        Map<WorkloadAction, Integer> mix = new EnumMap<>(WorkloadAction.class);
+        for (WorkloadAction action : WorkloadAction.values()) {
+            mix.put(action, 1);
+        }
+        LoadTestOptions options = new LoadTestOptions("http://localhost:" + port, "test", 6, 1, 4,
+                Duration.ZERO, Duration.ofSeconds(3), mix);
+
+        LoadGenerator generator = new LoadGenerator(options, objectMapper);
+        LoadGenerator.Population population = generator.seed();
+        assertThat(population.users()).hasSize(6);
+        assertThat(population.postIds()).hasSize(6);
+        assertThat(population.users()).allSatisfy(user -> assertThat(user.chatRoomIds()).isNotEmpty());
+
+        LoadReport report = generator.run(population);
+        assertThat(report.totalRequests()).isPositive();
+        assertThat(report.totalErrors()).isZero();
+        assertThat(report.rows()).extracting(LoadReport.Row::endpoint).contains(
+                "GET /api/profiles/discover/next", "POST /api/matches/swipe", "GET /api/posts/community/{id}/feed",
+                "POST /api/likes/post/{id}", "POST /api/chat/send", "GET /api/chat/inbox");
+        assertThat(report.rows()).allSatisfy(row -> assertThat(row.p99Millis()).isGreaterThanOrEqualTo(row.p50Millis()));
+    }
+}
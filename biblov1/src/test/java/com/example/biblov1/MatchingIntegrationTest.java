@@ -1,6 +1,8 @@
 package com.example.biblov1;
 
 import com.example.biblov1.model.StudyMatch;
+import com.example.biblov1.model.UserSwipe;
+import com.example.biblov1.repository.ChatRoomRepository;
 import com.example.biblov1.repository.StudyMatchRepository;
 import com.example.biblov1.repository.UserSwipeRepository;
 import com.example.biblov1.testsupport.TestAuthSupport;
@@ -13,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 import java.util.Map;
@@ -32,6 +35,7 @@ class MatchingIntegrationTest {
     @Autowired private TestDatabaseCleanup databaseCleanup;
     @Autowired private StudyMatchRepository studyMatchRepository;
     @Autowired private UserSwipeRepository userSwipeRepository;
+    @Autowired private ChatRoomRepository chatRoomRepository;
 
     @BeforeEach
     void resetDb() {
@@ -110,4 +114,115 @@ class MatchingIntegrationTest {
         assertThat(studyMatchRepository.count()).isEqualTo(1);
         assertThat(userSwipeRepository.count()).isEqualTo(2);
     }
+
+    @Test
+    void should_update_existing_swipe_and_open_single_chat_room_on_match() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+
+        swipe(a, b.id(), "DISLIKE").andExpect(status().isOk()).andExpect(jsonPath("$.match").value(false));
+        swipe(b, a.id(), "LIKE").andExpect(status().isOk()).andExpect(jsonPath("$.match").value(false));
+        swipe(a, b.id(), "LIKE").andExpect(status().isOk()).andExpect(jsonPath("$.match").value(true));
+        swipe(a, b.id(), "LIKE").andExpect(status().isOk()).andExpect(jsonPath("$.match").value(true));
+
+        assertThat(userSwipeRepository.count()).isEqualTo(2);
+        assertThat(userSwipeRepository.findAll())
+                .allMatch(swipe -> swipe.getSwipeType() == UserSwipe.SwipeType.LIKE);
+        assertThat(studyMatchRepository.count()).isEqualTo(1);
+        assertThat(chatRoomRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_reject_swipe_on_unknown_user() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+
+        swipe(a, a.id() + 1000, "LIKE").andExpect(status().isBadRequest());
+        assertThat(userSwipeRepository.count()).isZero();
+    }
+
+    @Test
+    void should_apply_swipe_batch_and_report_matches_per_swipe() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+
+        swipe(a, c.id(), "LIKE").andExpect(status().isOk());
+
+        mockMvc.perform(
+                        post("/api/matches/swipes:batch")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + c.token())
+                                .content(objectMapper.writeValueAsString(Map.of("swipes", List.of(
+                                        Map.of("swipedUserId", a.id(), "swipeType", "LIKE"),
+                                        Map.of("swipedUserId", b.id(), "swipeType", "DISLIKE"),
+                                        Map.of("swipedUserId", a.id() + 1000, "swipeType", "LIKE"),
+                                        Map.of("swipedUserId", b.id(), "swipeType", "LIKE"),
+                                        Map.of("swipedUserId", c.id(), "swipeType", "LIKE")
+                                ))))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(5))
+                .andExpect(jsonPath("$.results[0].match").value(true))
+                .andExpect(jsonPath("$.results[1].match").value(false))
+                .andExpect(jsonPath("$.results[2].error").value("Swiped user not found"))
+                .andExpect(jsonPath("$.results[3].match").value(false))
+                .andExpect(jsonPath("$.results[3].error").doesNotExist())
+                .andExpect(jsonPath("$.results[4].error").value("Cannot swipe on yourself"));
+
+        assertThat(userSwipeRepository.count()).isEqualTo(3);
+        assertThat(userSwipeRepository.findAll())
+                .allMatch(swipe -> swipe.getSwipeType() == UserSwipe.SwipeType.LIKE);
+        assertThat(studyMatchRepository.count()).isEqualTo(1);
+        assertThat(chatRoomRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_replay_repeated_swipes_on_the_same_user_in_order() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        TestAuthSupport.TestUser c = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Carol", "c@example.com", "password123");
+
+        swipe(a, c.id(), "LIKE").andExpect(status().isOk());
+        swipe(b, c.id(), "LIKE").andExpect(status().isOk());
+
+        // LIKE then DISLIKE on Alice still matches on the LIKE; DISLIKE then LIKE on Bob matches on the LIKE only
+        mockMvc.perform(
+                        post("/api/matches/swipes:batch")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + c.token())
+                                .content(objectMapper.writeValueAsString(Map.of("swipes", List.of(
+                                        Map.of("swipedUserId", a.id(), "swipeType", "LIKE"),
+                                        Map.of("swipedUserId", a.id(), "swipeType", "DISLIKE"),
+                                        Map.of("swipedUserId", b.id(), "swipeType", "DISLIKE"),
+                                        Map.of("swipedUserId", b.id(), "swipeType", "LIKE"),
+                                        Map.of("swipedUserId", b.id(), "swipeType", "LIKE")
+                                ))))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].match").value(true))
+                .andExpect(jsonPath("$.results[1].match").value(false))
+                .andExpect(jsonPath("$.results[2].match").value(false))
+                .andExpect(jsonPath("$.results[3].match").value(true))
+                .andExpect(jsonPath("$.results[4].match").value(false));
+
+        assertThat(studyMatchRepository.count()).isEqualTo(2);
+        assertThat(chatRoomRepository.count()).isEqualTo(2);
+        // The stored swipe is the last one per user
+        assertThat(userSwipeRepository.findAll())
+                .filteredOn(swipe -> swipe.getSwiper().getId().equals(c.id()))
+                .extracting(swipe -> swipe.getSwiped().getId() + ":" + swipe.getSwipeType())
+                .containsExactlyInAnyOrder(a.id() + ":DISLIKE", b.id() + ":LIKE");
+    }
+
+    private ResultActions swipe(TestAuthSupport.TestUser swiper, Long swipedUserId, String swipeType) throws Exception {
+        return mockMvc.perform(
+                        post("/api/matches/swipe")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + swiper.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "swipedUserId", swipedUserId,
+                                        "swipeType", swipeType
+                                )))
+                );
+    }
 }
@@ -0,0 +1,353 @@
+package com.example.biblov1;
+
+import com.example.biblov1.model.Community;
+import com.example.biblov1.model.Post;
+import com.example.biblov1.model.User;
+import com.example.biblov1.repository.LikeRepository;
+import com.example.biblov1.repository.PostRepository;
+import com.example.biblov1.service.CommentService;
+import com.example.biblov1.service.PostCounterReconciler;
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PostFeedIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private PostRepository postRepository;
+    @Autowired private PostCounterReconciler counterReconciler;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private LikeRepository likeRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private CommentService commentService;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_assemble_community_feed_with_likes_and_comments() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+
+        long communityId = createCommunity(a, "Physics");
+        long first = createPost(a, communityId, "first", "[\"quantum\",\"exam\"]");
+        long second = createPost(b, communityId, "second", "[]");
+
+        like(b, first);
+        like(a, first);
+        comment(b, first, "nice");
+        comment(a, first, "thanks");
+
+        JsonNode feed = getJson(b, "/api/posts/community/" + communityId);
+        assertThat(feed).hasSize(2);
+
+        JsonNode newest = feed.get(0);
+        assertThat(newest.get("id").asLong()).isEqualTo(second);
+        assertThat(newest.get("authorName").asText()).isEqualTo("Bob");
+        assertThat(newest.get("likesCount").asLong()).isZero();
+        assertThat(newest.get("comments")).isEmpty();
+
+        JsonNode oldest = feed.get(1);
+        assertThat(oldest.get("id").asLong()).isEqualTo(first);
+        assertThat(oldest.get("authorId").asLong()).isEqualTo(a.id());
+        assertThat(oldest.get("communityId").asLong()).isEqualTo(communityId);
+        assertThat(oldest.get("likesCount").asLong()).isEqualTo(2);
+        assertThat(oldest.get("liked").asBoolean()).isTrue();
+        assertThat(oldest.get("hashtags")).hasSize(2);
+        assertThat(oldest.get("comments")).hasSize(2);
+        assertThat(oldest.get("comments").get(0).get("content").asText()).isEqualTo("nice");
+        assertThat(oldest.get("comments").get(0).get("authorName").asText()).isEqualTo("Bob");
+
+        JsonNode single = getJson(a, "/api/posts/" + second);
+        assertThat(single.get("content").asText()).isEqualTo("second");
+        assertThat(single.get("liked").asBoolean()).isFalse();
+    }
+
+    @Test
+    void should_page_feed_with_bounded_comment_previews_and_thread_cursor() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+
+        long communityId = createCommunity(a, "Chemistry");
+        long first = createPost(a, communityId, "first", "[]");
+        long second = createPost(a, communityId, "second", "[]");
+        long third = createPost(a, communityId, "third", "[]");
+        for (int i = 1; i <= 4; i++) {
+            comment(a, first, "c" + i);
+        }
+
+        JsonNode page1 = getJson(a, "/api/posts/community/" + communityId + "/feed?limit=2");
+        assertThat(page1.get("items")).hasSize(2);
+        assertThat(page1.get("items").get(0).get("id").asLong()).isEqualTo(third);
+        assertThat(page1.get("items").get(1).get("id").asLong()).isEqualTo(second);
+        assertThat(page1.get("nextCursor").isNull()).isFalse();
+
+        JsonNode page2 = getJson(a, "/api/posts/community/" + communityId + "/feed?limit=2&cursor=" + page1.get("nextCursor").asText());
+        assertThat(page2.get("items")).hasSize(1);
+        assertThat(page2.get("nextCursor").isNull()).isTrue();
+
+        JsonNode oldest = page2.get("items").get(0);
+        assertThat(oldest.get("id").asLong()).isEqualTo(first);
+        assertThat(oldest.get("commentCount").asLong()).isEqualTo(4);
+        assertThat(oldest.get("comments")).hasSize(3);
+        assertThat(oldest.get("comments").get(0).get("content").asText()).isEqualTo("c2");
+        assertThat(oldest.get("comments").get(2).get("content").asText()).isEqualTo("c4");
+
+        JsonNode thread1 = getJson(a, "/api/comments/post/" + first + "/page?limit=3");
+        assertThat(thread1.get("items")).hasSize(3);
+        assertThat(thread1.get("items").get(0).get("content").asText()).isEqualTo("c1");
+        JsonNode thread2 = getJson(a, "/api/comments/post/" + first + "/page?limit=3&cursor=" + thread1.get("nextCursor").asText());
+        assertThat(thread2.get("items")).hasSize(1);
+        assertThat(thread2.get("items").get(0).get("content").asText()).isEqualTo("c4");
+        assertThat(thread2.get("nextCursor").isNull()).isTrue();
+
+        mockMvc.perform(
+                        get("/api/posts/community/" + communityId + "/feed")
+                                .param("cursor", "garbage")
+                                .header("Authorization", "Bearer " + a.token())
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_maintain_counters_and_reconcile_drift() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+
+        long communityId = createCommunity(a, "Biology");
+        long postId = createPost(a, communityId, "cells", "[]");
+        like(a, postId);
+        like(b, postId);
+        like(b, postId); // toggles back off
+        long commentId = comment(a, postId, "one");
+        comment(b, postId, "two");
+        mockMvc.perform(
+                        delete("/api/comments/" + commentId)
+                                .header("Authorization", "Bearer " + a.token())
+                )
+                .andExpect(status().isOk());
+
+        JsonNode post = getJson(a, "/api/posts/" + postId);
+        assertThat(post.get("likesCount").asLong()).isEqualTo(1);
+        assertThat(post.get("commentCount").asLong()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            postRepository.adjustLikeCount(postId, 5);
+            postRepository.adjustCommentCount(postId, -1);
+        });
+        assertThat(counterReconciler.reconcile()).isEqualTo(2);
+        assertThat(counterReconciler.reconcile()).isZero();
+
+        JsonNode repaired = getJson(a, "/api/posts/" + postId);
+        assertThat(repaired.get("likesCount").asLong()).isEqualTo(1);
+        assertThat(repaired.get("commentCount").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void should_decrement_the_comment_count_once_when_a_comment_is_deleted_twice_concurrently() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        long postId = createPost(a, createCommunity(a, "Biology"), "cells", "[]");
+        long commentId = comment(a, postId, "one");
+        comment(a, postId, "two");
+
+        // The first delete holds the row until released; the second one runs meanwhile and must neither count it again
+        // nor fail
+        CountDownLatch deleted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                commentService.deleteComment(commentId);
+                deleted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(deleted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> second = executor.submit(() -> commentService.deleteComment(commentId));
+            Thread.sleep(200);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertThat(getJson(a, "/api/posts/" + postId).get("commentCount").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void should_write_memberships_posts_and_comments_without_loading_what_they_reference() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        long communityId = createCommunity(a, "Chemistry");
+
+        // Start cold, so second-level cache hits cannot stand in for the selects being avoided
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long userLoads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+        long communityLoads = statistics.getEntityStatistics(Community.class.getName()).getLoadCount();
+        long postLoads = statistics.getEntityStatistics(Post.class.getName()).getLoadCount();
+
+        postExpecting(b, "/api/communities/" + communityId + "/join", Map.of(), 200);
+        long postId = createPost(b, communityId, "titration tips", "[\"lab\"]");
+        JsonNode comment = postExpecting(a, "/api/comments", Map.of("postId", postId, "content", "thanks"), 201);
+        assertThat(comment.get("authorName").asText()).isEqualTo("Alice");
+        assertThat(comment.get("postId").asLong()).isEqualTo(postId);
+        JsonNode fetched = getJson(b, "/api/comments/" + comment.get("id").asLong());
+        assertThat(fetched.get("authorName").asText()).isEqualTo("Alice");
+        assertThat(fetched.has("author")).isFalse();
+        assertThat(fetched.has("post")).isFalse();
+
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(userLoads);
+        assertThat(statistics.getEntityStatistics(Community.class.getName()).getLoadCount()).isEqualTo(communityLoads);
+        assertThat(statistics.getEntityStatistics(Post.class.getName()).getLoadCount()).isEqualTo(postLoads);
+
+        // Unknown targets are rejected by the foreign keys with the same errors as before
+        assertThat(postExpecting(a, "/api/comments", Map.of("postId", 999_999, "content", "?"), 400).get("error").asText())
+                .isEqualTo("Post not found");
+        assertThat(postExpecting(a, "/api/communities/999999/join", Map.of(), 400).get("error").asText())
+                .isEqualTo("Community not found");
+        assertThat(postExpecting(b, "/api/communities/" + communityId + "/join", Map.of(), 400).get("error").asText())
+                .isEqualTo("User is already a member of this community.");
+        mockMvc.perform(
+                        multipart("/api/posts")
+                                .param("communityId", "999999")
+                                .param("content", "lost")
+                                .param("hashtags", "[]")
+                                .header("Authorization", "Bearer " + a.token())
+                )
+                .andExpect(status().isBadRequest());
+
+        // Other integrity problems are not reported as a missing target; blank content is rejected before the insert
+        assertThat(postExpecting(a, "/api/comments", Map.of("postId", postId, "content", " "), 400).get("error").asText())
+                .isEqualTo("Comment content cannot be empty");
+        mockMvc.perform(
+                        multipart("/api/posts")
+                                .param("communityId", String.valueOf(communityId))
+                                .param("content", "")
+                                .param("hashtags", "[]")
+                                .header("Authorization", "Bearer " + b.token())
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Post content cannot be empty"));
+
+        JsonNode feed = getJson(a, "/api/posts/community/" + communityId);
+        assertThat(feed).hasSize(1);
+        assertThat(feed.get(0).get("authorName").asText()).isEqualTo("Bob");
+        assertThat(feed.get(0).get("commentCount").asLong()).isEqualTo(1);
+        assertThat(getJson(a, "/api/communities/" + communityId + "/members/count").asLong()).isEqualTo(2);
+    }
+
+    private JsonNode postExpecting(TestAuthSupport.TestUser user, String path, Map<String, Object> body, int expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        post(path)
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + user.token())
+                                .content(objectMapper.writeValueAsString(body))
+                )
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private long createCommunity(TestAuthSupport.TestUser owner, String name) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        post("/api/communities")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + owner.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "name", name,
+                                        "description", name + " community",
+                                        "tags", List.of()
+                                )))
+                )
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private long createPost(TestAuthSupport.TestUser author, long communityId, String content, String hashtagsJson) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        multipart("/api/posts")
+                                .param("communityId", String.valueOf(communityId))
+                                .param("content", content)
+                                .param("hashtags", hashtagsJson)
+                                .header("Authorization", "Bearer " + author.token())
+                )
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private void like(TestAuthSupport.TestUser user, long postId) throws Exception {
+        mockMvc.perform(
+                        post("/api/likes/post/" + postId)
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk());
+    }
+
+    private long comment(TestAuthSupport.TestUser author, long postId, String content) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        post("/api/comments")
+                                .contentType(APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + author.token())
+                                .content(objectMapper.writeValueAsString(Map.of(
+                                        "postId", postId,
+                                        "content", content
+                                )))
+                )
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private JsonNode getJson(TestAuthSupport.TestUser user, String path) throws Exception {
+        MvcResult result = mockMvc.perform(
+                        get(path)
+                                .header("Authorization", "Bearer " + user.token())
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.biblov1;
+
+import com.example.biblov1.model.Community;
+import com.example.biblov1.model.Skill;
+import com.example.biblov1.model.User;
+import com.example.biblov1.repository.UserRepository;
+import com.example.biblov1.service.UserService;
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private UserService userService;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_serve_repeat_community_and_user_lookups_from_the_cache() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+        JsonNode created = perform(a, post("/api/communities")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Chess club",
+                        "description", "Openings and endgames",
+                        "tags", List.of("chess")
+                ))), 201);
+        long communityId = created.get("id").asLong();
+        // Identity inserts are not cached, so the first read by ID fills the region
+        perform(b, get("/api/communities/" + communityId), 200);
+
+        Statistics statistics = statistics();
+        long communityLoads = statistics.getEntityStatistics(Community.class.getName()).getLoadCount();
+        long userLoads = statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+        long communityHits = statistics.getDomainDataRegionStatistics("communities").getHitCount();
+
+        for (int i = 0; i < 3; i++) {
+            JsonNode community = perform(b, get("/api/communities/" + communityId), 200);
+            assertThat(community.get("tags").get(0).asText()).isEqualTo("chess");
+        }
+        perform(b, post("/api/communities/" + communityId + "/join"), 200);
+
+        // The community, its tags and its owner come from the cache; joining only writes the membership by ID
+        assertThat(statistics.getEntityStatistics(Community.class.getName()).getLoadCount()).isEqualTo(communityLoads);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isEqualTo(userLoads);
+        assertThat(statistics.getDomainDataRegionStatistics("communities").getHitCount()).isEqualTo(communityHits + 3);
+
+        // Native upserts name their tables, so a swipe leaves cached users in place
+        perform(a, post("/api/matches/swipe")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("swipedUserId", b.id(), "swipeType", "LIKE"))), 200);
+        assertThat(entityManagerFactory.getCache().contains(User.class, b.id())).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Community.class, communityId)).isTrue();
+
+        JsonNode hits = perform(a, get("/actuator/metrics/hibernate.second.level.cache.requests")
+                .param("tag", "region:communities")
+                .param("tag", "result:hit"), 200);
+        assertThat(hits.get("measurements").get(0).get("value").asDouble()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void should_not_serve_stale_users_skills_or_profiles_after_updates() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+
+        User user = userService.getUserById(a.id());
+        user.setName("Alice Smith");
+        userService.updateUser(user);
+        assertThat(userService.getUserById(a.id()).getName()).isEqualTo("Alice Smith");
+
+        // Cache the empty skill set, then add a skill from the owning side only
+        assertThat(skillNames(a.id())).isEmpty();
+        Skill skill = new Skill();
+        skill.setSkillName("Java");
+        skill.setLevel("advanced");
+        userService.addSkill(a.id(), skill);
+        assertThat(skillNames(a.id())).containsExactly("Java");
+
+        updateProfile(a, List.of("chess"));
+        assertThat(perform(a, get("/api/profiles/me"), 200).get("interests").get(0).asText()).isEqualTo("chess");
+        updateProfile(a, List.of("go", "physics"));
+        JsonNode profile = perform(a, get("/api/profiles/me"), 200);
+        assertThat(profile.get("interests")).hasSize(2);
+        assertThat(profile.get("interests").get(0).asText()).isEqualTo("go");
+
+        // Unchanged since the last read, so the interests now come from the cache
+        long interestHits = statistics().getDomainDataRegionStatistics("profile-interests").getHitCount();
+        assertThat(perform(a, get("/api/profiles/me"), 200).get("interests")).hasSize(2);
+        assertThat(statistics().getDomainDataRegionStatistics("profile-interests").getHitCount()).isEqualTo(interestHits + 1);
+    }
+
+    private List<String> skillNames(Long userId) {
+        return transactionTemplate.execute(status -> userRepository.findById(userId).orElseThrow().getSkills().stream()
+                .map(Skill::getSkillName)
+                .toList());
+    }
+
+    private void updateProfile(TestAuthSupport.TestUser user, List<String> interests) throws Exception {
+        perform(user, put("/api/profiles/me")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Alice",
+                        "major", "",
+                        "interests", interests,
+                        "languages", List.of(),
+                        "lookingFor", Map.of(),
+                        "socialLinks", Map.of()
+                ))), 200);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private JsonNode perform(TestAuthSupport.TestUser user, MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        String body = mockMvc.perform(request.header("Authorization", "Bearer " + user.token()))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return body.isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(body);
+    }
+}
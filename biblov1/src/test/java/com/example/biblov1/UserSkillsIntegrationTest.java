@@ -0,0 +1,81 @@
+package com.example.biblov1;
+
+import com.example.biblov1.model.User;
+import com.example.biblov1.testsupport.TestAuthSupport;
+import com.example.biblov1.testsupport.TestDatabaseCleanup;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserSkillsIntegrationTest {
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private TestDatabaseCleanup databaseCleanup;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void resetDb() {
+        databaseCleanup.reset();
+    }
+
+    @Test
+    void should_load_skills_only_where_they_are_shown() throws Exception {
+        TestAuthSupport.TestUser a = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Alice", "a@example.com", "password123");
+        TestAuthSupport.TestUser b = TestAuthSupport.registerAndLogin(mockMvc, objectMapper, "Bob", "b@example.com", "password123");
+
+        JsonNode withSkill = perform(a, post("/api/users/profile/skills")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("skillName", "Java", "level", "advanced"))));
+        assertThat(withSkill.get("skills")).hasSize(1);
+        long skillId = withSkill.get("skills").get(0).get("id").asLong();
+
+        JsonNode profile = perform(b, get("/api/profiles/" + a.id()));
+        assertThat(profile.get("skills").get(0).get("skillName").asText()).isEqualTo("Java");
+        assertThat(profile.get("skills").get(0).get("level").asText()).isEqualTo("advanced");
+        // Another user's profile page carries no account fields
+        assertThat(profile.get("userId").asLong()).isEqualTo(a.id());
+        assertThat(profile.has("user")).isFalse();
+        assertThat(profile.has("password")).isFalse();
+        assertThat(profile.has("email")).isFalse();
+
+        // Discovery shows Alice's card without touching her skills collection
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String skills = User.class.getName() + ".skills";
+        long skillFetches = statistics.getCollectionStatistics(skills).getFetchCount();
+        JsonNode page = perform(b, get("/api/profiles/discover/page"));
+        assertThat(page.get("items").get(0).get("userId").asLong()).isEqualTo(a.id());
+        assertThat(statistics.getCollectionStatistics(skills).getFetchCount()).isEqualTo(skillFetches);
+
+        JsonNode withoutSkill = perform(a, delete("/api/users/profile/skills/" + skillId));
+        assertThat(withoutSkill.get("skills")).isEmpty();
+    }
+
+    private JsonNode perform(TestAuthSupport.TestUser user, MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request.header("Authorization", "Bearer " + user.token()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.biblov1.config.security.jwt;
+
+import com.example.biblov1.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+    private static final String SECRET = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=";
+
+    @Test
+    void should_parse_claims_once_and_serve_repeats_from_the_verified_cache() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000, 100);
+        String token = jwtUtils.generateJwtToken(authenticationFor(7L));
+
+        Claims first = jwtUtils.parseValidClaims(token);
+        assertThat(first).isNotNull();
+        assertThat(jwtUtils.parseValidClaims(token)).isSameAs(first);
+
+        UserDetailsImpl principal = jwtUtils.getUserDetailsFromClaims(first);
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getUsername()).isEqualTo("Alice");
+        assertThat(principal.getEmail()).isEqualTo("alice@example.com");
+        assertThat(principal.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void should_reject_tampered_and_foreign_tokens() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000, 100);
+        String token = jwtUtils.generateJwtToken(authenticationFor(7L));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        JwtUtils otherKey = new JwtUtils("ZmVkY2JhOTg3NjU0MzIxMGZlZGNiYTk4NzY1NDMyMTA=", 60_000, 100);
+
+        assertThat(jwtUtils.parseValidClaims(tampered)).isNull();
+        assertThat(jwtUtils.parseValidClaims("short")).isNull();
+        assertThat(otherKey.parseValidClaims(token)).isNull();
+    }
+
+    @Test
+    void should_stop_accepting_cached_tokens_once_they_expire() throws InterruptedException {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 1_000, 100);
+        String token = jwtUtils.generateJwtToken(authenticationFor(7L));
+        assertThat(jwtUtils.parseValidClaims(token)).isNotNull();
+
+        Thread.sleep(2_100);
+        assertThat(jwtUtils.parseValidClaims(token)).isNull();
+    }
+
+    private static UsernamePasswordAuthenticationToken authenticationFor(Long userId) {
+        UserDetailsImpl principal = new UserDetailsImpl(userId, "Alice", "alice@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
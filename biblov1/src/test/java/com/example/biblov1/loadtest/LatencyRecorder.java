@@ -0,0 +1,59 @@
+package com.example.biblov1.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Every request's latency, grouped by endpoint. Samples are kept raw so percentiles are exact; a long run at a
+// few thousand requests/sec stays in the tens of megabytes.
+final class LatencyRecorder {
+    private final Map<String, Samples> byEndpoint = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long latencyNanos, boolean error) {
+        byEndpoint.computeIfAbsent(endpoint, e -> new Samples()).add(latencyNanos, error);
+    }
+
+    LoadReport report(Duration elapsed) {
+        List<LoadReport.Row> rows = new ArrayList<>();
+        byEndpoint.forEach((endpoint, samples) -> rows.add(samples.toRow(endpoint, elapsed)));
+        rows.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return new LoadReport(elapsed, rows);
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long latencyNanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized LoadReport.Row toRow(String endpoint, Duration elapsed) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+            return new LoadReport.Row(endpoint, count, errors, count / seconds,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+        }
+
+        // Nearest-rank percentile
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.biblov1.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Calls the real REST API over HTTP and records each call under its endpoint template, e.g. "GET /api/chat/inbox".
+// Failures (transport errors and status >= 400) are recorded as errors and returned as null, never thrown.
+final class LoadClient {
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private volatile LatencyRecorder recorder;
+
+    LoadClient(String baseUrl, ObjectMapper objectMapper, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    // Switches recording, e.g. from the warm-up recorder to the measured one
+    void recordInto(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET());
+    }
+
+    JsonNode postJson(String endpoint, String path, String token, Object body) {
+        try {
+            return send(endpoint, request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Request body is not serializable", e);
+        }
+    }
+
+    JsonNode postForm(String endpoint, String path, String token, Map<String, String> form) {
+        String encoded = form.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encoded)));
+    }
+
+    // Some endpoints answer with plain text
+    private JsonNode parse(String body) {
+        if (body == null || body.isEmpty()) {
+            return objectMapper.nullNode();
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return objectMapper.getNodeFactory().textNode(body);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean error = response.statusCode() >= 400;
+            recorder.record(endpoint, System.nanoTime() - start, error);
+            if (error) {
+                return null;
+            }
+            return parse(response.body());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
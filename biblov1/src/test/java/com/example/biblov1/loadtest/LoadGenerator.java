@@ -0,0 +1,269 @@
+package com.example.biblov1.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+// Seeds a population through the real controllers, then has `concurrency` workers drive the weighted
+// discover/swipe/feed/like/chat/inbox mix as randomly chosen users until the measured phase ends.
+public final class LoadGenerator {
+    private static final String PASSWORD = "password123";
+    private static final int USERS_PER_COMMUNITY = 20;
+    private static final int LIKES_PER_USER = 3;
+    private static final int RANDOM_LIKE_SWIPES_PER_USER = 2;
+
+    public record VirtualUser(long id, String token, List<Long> communityIds, List<Long> chatRoomIds) {
+    }
+
+    public record Population(List<VirtualUser> users, List<Long> communityIds, List<Long> postIds) {
+    }
+
+    private final LoadTestOptions options;
+    private final LoadClient client;
+    // Accounts of every run are distinct, so runs can repeat against the same MySQL database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    public LoadGenerator(LoadTestOptions options, ObjectMapper objectMapper) {
+        this.options = options;
+        this.client = new LoadClient(options.baseUrl(), objectMapper, new LatencyRecorder());
+    }
+
+    public Population seed() {
+        int userCount = options.users();
+        Random random = new Random(42);
+
+        // Accounts
+        List<JsonNode> logins = parallel(userCount, i -> {
+            String email = "load-" + runId + "-" + i + "@example.com";
+            require(client.postJson("POST /api/auth/register", "/api/auth/register", null,
+                    Map.of("name", "Load User " + i, "email", email, "password", PASSWORD)), "register user " + i);
+            return require(client.postJson("POST /api/auth/login", "/api/auth/login", null,
+                    Map.of("email", email, "password", PASSWORD)), "log in user " + i);
+        });
+        long[] userIds = logins.stream().mapToLong(login -> login.get("id").asLong()).toArray();
+        String[] tokens = logins.stream().map(login -> login.get("token").asText()).toArray(String[]::new);
+
+        // Communities: user c owns community c (and is its first member); everyone is in two of them
+        int communityCount = Math.max(1, userCount / USERS_PER_COMMUNITY);
+        List<Long> communityIds = parallel(communityCount, c -> require(client.postJson("POST /api/communities", "/api/communities", tokens[c],
+                Map.of("name", "Load " + runId + " " + c, "description", "Load test community " + c, "tags", List.of("load"))),
+                "create community " + c).get("id").asLong());
+        List<List<Long>> memberships = parallel(userCount, i -> {
+            Set<Long> joined = new LinkedHashSet<>();
+            for (int c : new int[]{i % communityCount, (i + 1) % communityCount}) {
+                if (c != i && joined.add(communityIds.get(c))) {
+                    require(client.postJson("POST /api/communities/{id}/join", "/api/communities/" + communityIds.get(c) + "/join", tokens[i], Map.of()),
+                            "join community " + c);
+                }
+                joined.add(communityIds.get(c));
+            }
+            return List.copyOf(joined);
+        });
+
+        // Posts in the user's first community, then a few likes each
+        List<Long> postIds = parallel(userCount, i -> {
+            List<Long> ids = new ArrayList<>();
+            for (int p = 0; p < options.postsPerUser(); p++) {
+                ids.add(require(client.postForm("POST /api/posts", "/api/posts", tokens[i], Map.of(
+                        "communityId", String.valueOf(memberships.get(i).get(0)),
+                        "content", "Load test post " + p + " by user " + i,
+                        "hashtags", "[\"load\"]")), "create post").get("id").asLong());
+            }
+            return ids;
+        }).stream().flatMap(List::stream).toList();
+        if (!postIds.isEmpty()) {
+            int[][] likedPosts = new int[userCount][LIKES_PER_USER];
+            for (int[] liked : likedPosts) {
+                for (int l = 0; l < liked.length; l++) {
+                    liked[l] = random.nextInt(postIds.size());
+                }
+            }
+            parallel(userCount, i -> {
+                for (int post : new LinkedHashSet<>(Arrays.stream(likedPosts[i]).boxed().toList())) {
+                    require(client.postJson("POST /api/likes/post/{id}", "/api/likes/post/" + postIds.get(post), tokens[i], Map.of()), "like post");
+                }
+                return null;
+            });
+        }
+
+        // Swipes: neighbours (0,1), (2,3), ... like each other, so everyone but an odd last user has a chat room.
+        // The even side goes first; two simultaneous likes would each miss the other and never match.
+        parallel(userCount, i -> {
+            if (i % 2 == 0 && i + 1 < userCount) {
+                swipe(tokens[i], userIds[i + 1], "LIKE");
+            }
+            return null;
+        });
+        int[][] randomTargets = new int[userCount][RANDOM_LIKE_SWIPES_PER_USER];
+        for (int i = 0; i < userCount; i++) {
+            for (int s = 0; s < RANDOM_LIKE_SWIPES_PER_USER; s++) {
+                randomTargets[i][s] = otherUser(random, i, userCount);
+            }
+        }
+        parallel(userCount, i -> {
+            if (i % 2 == 1) {
+                swipe(tokens[i], userIds[i - 1], "LIKE");
+            }
+            for (int target : randomTargets[i]) {
+                swipe(tokens[i], userIds[target], "LIKE");
+            }
+            return null;
+        });
+
+        // Chat rooms from each user's inbox, with a first message
+        List<VirtualUser> users = parallel(userCount, i -> {
+            List<Long> rooms = new ArrayList<>();
+            for (JsonNode summary : require(client.get("GET /api/chat/inbox", "/api/chat/inbox", tokens[i]), "read inbox")) {
+                rooms.add(summary.get("chatRoomId").asLong());
+            }
+            if (!rooms.isEmpty()) {
+                require(client.postJson("POST /api/chat/send", "/api/chat/send", tokens[i],
+                        Map.of("chatRoomId", rooms.get(0), "content", "Hello from user " + i)), "send first message");
+            }
+            return new VirtualUser(userIds[i], tokens[i], memberships.get(i), List.copyOf(rooms));
+        });
+        return new Population(users, communityIds, postIds);
+    }
+
+    public LoadReport run(Population population) {
+        WorkloadAction[] weighted = weightedActions();
+        long[] allUserIds = population.users().stream().mapToLong(VirtualUser::id).toArray();
+        LatencyRecorder measured = new LatencyRecorder();
+        client.recordInto(new LatencyRecorder());
+
+        long measureFrom = System.nanoTime() + options.warmup().toNanos();
+        long until = measureFrom + options.duration().toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int w = 0; w < options.concurrency(); w++) {
+                running.add(workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < until && !Thread.currentThread().isInterrupted()) {
+                        VirtualUser user = population.users().get(random.nextInt(population.users().size()));
+                        perform(weighted[random.nextInt(weighted.length)], user, population, allUserIds, random);
+                    }
+                }));
+            }
+            sleepUntil(measureFrom);
+            client.recordInto(measured);
+            long measuredStart = System.nanoTime();
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+            return measured.report(Duration.ofNanos(System.nanoTime() - measuredStart));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while the load test was running", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void perform(WorkloadAction action, VirtualUser user, Population population, long[] allUserIds, ThreadLocalRandom random) {
+        switch (action) {
+            case DISCOVER -> client.get("GET /api/profiles/discover/next", "/api/profiles/discover/next?count=10", user.token());
+            case SWIPE -> {
+                long target = allUserIds[random.nextInt(allUserIds.length)];
+                if (target == user.id()) {
+                    return;
+                }
+                client.postJson("POST /api/matches/swipe", "/api/matches/swipe", user.token(),
+                        Map.of("swipedUserId", target, "swipeType", random.nextInt(3) == 0 ? "DISLIKE" : "LIKE"));
+            }
+            case FEED -> client.get("GET /api/posts/community/{id}/feed",
+                    "/api/posts/community/" + user.communityIds().get(random.nextInt(user.communityIds().size())) + "/feed", user.token());
+            case LIKE -> {
+                if (!population.postIds().isEmpty()) {
+                    client.postJson("POST /api/likes/post/{id}", "/api/likes/post/" + population.postIds().get(random.nextInt(population.postIds().size())),
+                            user.token(), Map.of());
+                }
+            }
+            case CHAT -> {
+                if (user.chatRoomIds().isEmpty()) {
+                    return;
+                }
+                client.postJson("POST /api/chat/send", "/api/chat/send", user.token(), Map.of(
+                        "chatRoomId", user.chatRoomIds().get(random.nextInt(user.chatRoomIds().size())),
+                        "content", "load message " + random.nextInt(1_000_000)));
+            }
+            case INBOX -> client.get("GET /api/chat/inbox", "/api/chat/inbox", user.token());
+        }
+    }
+
+    private void swipe(String token, long targetId, String type) {
+        require(client.postJson("POST /api/matches/swipe", "/api/matches/swipe", token, Map.of("swipedUserId", targetId, "swipeType", type)), "swipe");
+    }
+
+    // Each action repeated by its weight, so a uniform pick follows the mix
+    private WorkloadAction[] weightedActions() {
+        List<WorkloadAction> weighted = new ArrayList<>();
+        options.mix().forEach((action, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(action);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The workload mix is empty");
+        }
+        return weighted.toArray(WorkloadAction[]::new);
+    }
+
+    // Runs the per-index seeding step on `concurrency` threads and returns the results in index order
+    private <T> List<T> parallel(int count, IntFunction<T> step) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(count, options.concurrency()));
+        try {
+            List<Future<T>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> step.apply(index)));
+            }
+            List<T> results = new ArrayList<>(count);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while seeding", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static JsonNode require(JsonNode response, String step) {
+        if (response == null) {
+            throw new IllegalStateException("Could not " + step);
+        }
+        return response;
+    }
+
+    private static int otherUser(Random random, int self, int userCount) {
+        return (self + 1 + random.nextInt(userCount - 1)) % userCount;
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(Duration.ofNanos(remaining));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.biblov1.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+// Per-endpoint throughput and latency of the measured phase (warm-up excluded)
+public record LoadReport(Duration elapsed, List<Row> rows) {
+    public record Row(String endpoint, long requests, long errors, double requestsPerSecond,
+                      double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    public long totalRequests() {
+        return rows.stream().mapToLong(Row::requests).sum();
+    }
+
+    public long totalErrors() {
+        return rows.stream().mapToLong(Row::errors).sum();
+    }
+
+    public Optional<Row> row(String endpoint) {
+        return rows.stream().filter(row -> row.endpoint().equals(endpoint)).findFirst();
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-45s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Row row : rows) {
+            out.printf("%-45s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", row.endpoint(), row.requests(), row.errors(),
+                    row.requestsPerSecond(), row.p50Millis(), row.p99Millis(), row.maxMillis());
+        }
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+        out.printf("%-45s %9d %7d %9.1f%n", "total over " + elapsed.toSeconds() + "s", totalRequests(), totalErrors(), totalRequests() / seconds);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.biblov1.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Command-line options of LoadTestRunner, as --name=value. Without --base-url the application is started in-process.
+public record LoadTestOptions(
+        String baseUrl,
+        String inProcessProfile,
+        int users,
+        int postsPerUser,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<WorkloadAction, Integer> mix
+) {
+    public static LoadTestOptions defaults() {
+        Map<WorkloadAction, Integer> mix = new EnumMap<>(WorkloadAction.class);
+        for (WorkloadAction action : WorkloadAction.values()) {
+            mix.put(action, action.defaultWeight);
+        }
+        return new LoadTestOptions(null, "test", 100, 2, 16, Duration.ofSeconds(10), Duration.ofSeconds(60), mix);
+    }
+
+    // --base-url=http://localhost:8080 --users=200 --posts-per-user=2 --concurrency=32
+    // --warmup-seconds=10 --duration-seconds=60 --mix=discover:3,swipe:3,feed:4,like:2,chat:2,inbox:1
+    // --in-process-profile=test (H2) or default (application.properties, i.e. local MySQL)
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions defaults = defaults();
+        String baseUrl = defaults.baseUrl;
+        String inProcessProfile = defaults.inProcessProfile;
+        int users = defaults.users;
+        int postsPerUser = defaults.postsPerUser;
+        int concurrency = defaults.concurrency;
+        Duration warmup = defaults.warmup;
+        Duration duration = defaults.duration;
+        Map<WorkloadAction, Integer> mix = defaults.mix;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(2, eq)) {
+                case "base-url" -> baseUrl = value;
+                case "in-process-profile" -> inProcessProfile = value;
+                case "users" -> users = Integer.parseInt(value);
+                case "posts-per-user" -> postsPerUser = Integer.parseInt(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "warmup-seconds" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "duration-seconds" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                case "mix" -> mix = parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg.substring(0, eq));
+            }
+        }
+        if (users < 2) {
+            throw new IllegalArgumentException("--users must be at least 2");
+        }
+        return new LoadTestOptions(baseUrl, inProcessProfile, users, postsPerUser, concurrency, warmup, duration, mix);
+    }
+
+    public LoadTestOptions withBaseUrl(String url) {
+        return new LoadTestOptions(url, inProcessProfile, users, postsPerUser, concurrency, warmup, duration, mix);
+    }
+
+    // Actions left out of the mix are not run
+    private static Map<WorkloadAction, Integer> parseMix(String value) {
+        Map<WorkloadAction, Integer> mix = new EnumMap<>(WorkloadAction.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected action:weight but got: " + entry);
+            }
+            mix.put(WorkloadAction.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
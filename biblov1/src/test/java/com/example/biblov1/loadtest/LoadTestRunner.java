@@ -0,0 +1,41 @@
+package com.example.biblov1.loadtest;
+
+import com.example.biblov1.Biblov1Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Standalone entry point: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--users=200 --duration-seconds=60"
+// Without --base-url the application is started here on a random port (H2 through the test profile, or
+// --in-process-profile=default for application.properties' MySQL); with it, an already running server is measured.
+public final class LoadTestRunner {
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext application = null;
+        if (options.baseUrl() == null) {
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(Biblov1Application.class);
+            if (!"default".equals(options.inProcessProfile())) {
+                builder.profiles(options.inProcessProfile());
+            }
+            // As command-line arguments, so they win over the profile's own port and log levels
+            application = builder.run("--server.port=0", "--logging.level.root=WARN", "--logging.level.com.example.biblov1=WARN");
+            options = options.withBaseUrl("http://localhost:" + application.getEnvironment().getProperty("local.server.port"));
+        }
+
+        try {
+            LoadGenerator generator = new LoadGenerator(options, new ObjectMapper());
+            System.out.printf("Seeding %d users against %s%n", options.users(), options.baseUrl());
+            LoadGenerator.Population population = generator.seed();
+            System.out.printf("Running %s for %ds after a %ds warm-up with %d workers%n",
+                    options.mix(), options.duration().toSeconds(), options.warmup().toSeconds(), options.concurrency());
+            generator.run(population).print(System.out);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+}
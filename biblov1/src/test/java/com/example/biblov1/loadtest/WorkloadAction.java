@@ -0,0 +1,28 @@
+package com.example.biblov1.loadtest;
+
+// One step of the mixed workload a virtual user performs, with its default share of the mix
+public enum WorkloadAction {
+    DISCOVER("discover", 3),
+    SWIPE("swipe", 3),
+    FEED("feed", 4),
+    LIKE("like", 2),
+    CHAT("chat", 2),
+    INBOX("inbox", 1);
+
+    final String optionName;
+    final int defaultWeight;
+
+    WorkloadAction(String optionName, int defaultWeight) {
+        this.optionName = optionName;
+        this.defaultWeight = defaultWeight;
+    }
+
+    static WorkloadAction fromName(String name) {
+        for (WorkloadAction action : values()) {
+            if (action.optionName.equals(name)) {
+                return action;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload action: " + name);
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.biblov1.testsupport;
 
 import com.example.biblov1.repository.*;
+import com.example.biblov1.service.ChatRoomMembershipCache;
+import com.example.biblov1.service.LikeWriteBuffer;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TestDatabaseCleanup {
+    private final ChatRoomReadCursorRepository readCursorRepository;
     private final MessageRepository messageRepository;
     private final ChatRoomRepository chatRoomRepository;
     private final StudyMatchRepository studyMatchRepository;
@@ -17,8 +21,12 @@ public class TestDatabaseCleanup {
     private final SkillRepository skillRepository;
     private final UserProfileRepository userProfileRepository;
     private final UserRepository userRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final ChatRoomMembershipCache membershipCache;
+    private final EntityManagerFactory entityManagerFactory;
 
     public TestDatabaseCleanup(
+            ChatRoomReadCursorRepository readCursorRepository,
             MessageRepository messageRepository,
             ChatRoomRepository chatRoomRepository,
             StudyMatchRepository studyMatchRepository,
@@ -30,8 +38,12 @@ public class TestDatabaseCleanup {
             CommunityRepository communityRepository,
             SkillRepository skillRepository,
             UserProfileRepository userProfileRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            LikeWriteBuffer likeWriteBuffer,
+            ChatRoomMembershipCache membershipCache,
+            EntityManagerFactory entityManagerFactory
     ) {
+        this.readCursorRepository = readCursorRepository;
         this.messageRepository = messageRepository;
         this.chatRoomRepository = chatRoomRepository;
         this.studyMatchRepository = studyMatchRepository;
@@ -44,9 +56,14 @@ public class TestDatabaseCleanup {
         this.skillRepository = skillRepository;
         this.userProfileRepository = userProfileRepository;
         this.userRepository = userRepository;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.membershipCache = membershipCache;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     public void reset() {
+        likeWriteBuffer.flush();
+        readCursorRepository.deleteAll();
         messageRepository.deleteAll();
         chatRoomRepository.deleteAll();
         studyMatchRepository.deleteAll();
@@ -59,6 +76,9 @@ public class TestDatabaseCleanup {
         skillRepository.deleteAll();
         userProfileRepository.deleteAll();
         userRepository.deleteAll();
+        membershipCache.clear();
+        // Contexts that recreate the schema reuse IDs another context may still have cached
+        entityManagerFactory.getCache().evictAll();
     }
 }
 
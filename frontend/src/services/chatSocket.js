@@ -0,0 +1,78 @@
+// Minimal STOMP 1.2 client over the browser WebSocket: enough to authenticate, subscribe to the
+// user's message queue and reconnect. The server never expects client SEND frames.
+
+const NULL = '\u0000';
+
+function frame(command, headers) {
+  const lines = [command];
+  Object.entries(headers).forEach(([key, value]) => lines.push(`${key}:${value}`));
+  return lines.join('\n') + '\n\n' + NULL;
+}
+
+function parseFrame(raw) {
+  const separator = raw.indexOf('\n\n');
+  const head = (separator === -1 ? raw : raw.slice(0, separator)).split('\n');
+  const headers = {};
+  head.slice(1).forEach(line => {
+    const colon = line.indexOf(':');
+    if (colon > 0 && !(line.slice(0, colon) in headers)) {
+      headers[line.slice(0, colon)] = line.slice(colon + 1);
+    }
+  });
+  return { command: head[0], headers, body: separator === -1 ? '' : raw.slice(separator + 2) };
+}
+
+// onMessage receives each pushed message; onReconnect fires after a dropped connection comes back
+export function connectChatSocket({ url, token, onMessage, onReconnect, reconnectDelayMs = 5000 }) {
+  let socket = null;
+  let closed = false;
+  let connectedBefore = false;
+
+  function open() {
+    socket = new WebSocket(url);
+    let buffer = '';
+
+    socket.onopen = () => {
+      socket.send(frame('CONNECT', {
+        'accept-version': '1.2',
+        'heart-beat': '0,0',
+        Authorization: `Bearer ${token}`,
+      }));
+    };
+
+    socket.onmessage = event => {
+      buffer += event.data;
+      let end;
+      while ((end = buffer.indexOf(NULL)) !== -1) {
+        const raw = buffer.slice(0, end).replace(/^\n+/, '');
+        buffer = buffer.slice(end + 1);
+        if (!raw) continue;
+        const { command, body } = parseFrame(raw);
+        if (command === 'CONNECTED') {
+          socket.send(frame('SUBSCRIBE', { id: 'messages', destination: '/user/queue/messages' }));
+          if (connectedBefore && onReconnect) onReconnect();
+          connectedBefore = true;
+        } else if (command === 'MESSAGE') {
+          onMessage(JSON.parse(body));
+        } else if (command === 'ERROR') {
+          console.error('Chat socket error:', body);
+        }
+      }
+    };
+
+    socket.onclose = () => {
+      if (!closed) setTimeout(open, reconnectDelayMs);
+    };
+  }
+
+  open();
+  return {
+    close() {
+      closed = true;
+      if (socket && socket.readyState === WebSocket.OPEN) {
+        socket.send(frame('DISCONNECT', {}));
+      }
+      if (socket) socket.close();
+    },
+  };
+}